@@ -4,6 +4,7 @@ import { useNavigate } from 'react-router-dom';
 
 export default function Dashboard() {
   const [appointments, setAppointments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [newPatient, setNewPatient] = useState('');
   const [newDoctor, setNewDoctor] = useState('');
   const [newSpecialty, setNewSpecialty] = useState('');
@@ -14,6 +15,7 @@ export default function Dashboard() {
   const firstInputRef = useRef(null);
   const navigate = useNavigate();
   const formatId = (id) => (id ? String(id) : '');
+  const hasMoreRef = useRef(false);
 
   useEffect(() => {
     const token = localStorage.getItem('token');
@@ -48,31 +50,133 @@ export default function Dashboard() {
       if (storedRole) roleFromPayload = storedRole;
     }
     setUserRole(roleFromPayload);
-
-    fetchAppointments();
   }, [navigate]);
 
+  // Loads the list once, then applies the changes pushed by the server (SSE) instead of refetching.
+  // fetch is used instead of EventSource because EventSource cannot send the Authorization header.
+  useEffect(() => {
+    const token = localStorage.getItem('token');
+    if (!token) return undefined;
+    const controller = new AbortController();
+    let lastEventId = null;
+
+    const handleEvent = (event) => {
+      if (event.event === 'ready') {
+        // A fresh subscription; when resuming, the missed changes follow instead
+        if (lastEventId === null) {
+          lastEventId = event.id;
+          fetchAppointments();
+        }
+      } else if (event.event === 'appointment') {
+        lastEventId = event.id;
+        applyChange(JSON.parse(event.data));
+      } else if (event.event === 'reset') {
+        // Changes were missed: the server closes the stream and the next subscription reloads the list
+        lastEventId = null;
+      }
+    };
+
+    const parseEvent = (block) => {
+      const event = { event: 'message', id: null, data: '' };
+      block.split('\n').forEach((line) => {
+        const colon = line.indexOf(':');
+        if (colon <= 0) return;
+        const field = line.slice(0, colon);
+        const value = line.slice(colon + 1).replace(/^ /, '');
+        if (field === 'data') event.data += event.data ? `\n${value}` : value;
+        else if (field === 'event' || field === 'id') event[field] = value;
+      });
+      return event;
+    };
+
+    const subscribe = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const headers = { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' };
+          if (lastEventId !== null) headers['Last-Event-ID'] = lastEventId;
+          const response = await fetch('http://localhost:8080/api/appointments/stream', {
+            headers,
+            signal: controller.signal
+          });
+          if (!response.ok) throw new Error(`Change feed answered ${response.status}`);
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += value.replace(/\r\n?/g, '\n');
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+              handleEvent(parseEvent(buffer.slice(0, end)));
+              buffer = buffer.slice(end + 2);
+            }
+          }
+        } catch (err) {
+          if (controller.signal.aborted) return;
+          console.error(err);
+        }
+        await new Promise((resolve) => setTimeout(resolve, 2000));
+      }
+    };
+
+    subscribe();
+    return () => controller.abort();
+  }, []);
+
+  // The API returns keyset-paginated pages already ordered by date/time and id
+  const fetchPage = async (cursor) => {
+    const token = localStorage.getItem('token');
+    const response = await axios.get('http://localhost:8080/api/appointments', {
+      headers: { Authorization: `Bearer ${token}` },
+      params: cursor ? { cursor } : {}
+    });
+    return {
+      items: Array.isArray(response.data?.items) ? response.data.items : [],
+      nextCursor: response.data?.nextCursor || null
+    };
+  };
+
   const fetchAppointments = async () => {
     try {
-      const token = localStorage.getItem('token');
-      const response = await axios.get('http://localhost:8080/api/appointments', {
-        headers: { Authorization: `Bearer ${token}` }
-      });
-      const sorted = Array.isArray(response.data)
-        ? response.data
-            .slice()
-            .sort((a, b) => {
-              const diff = new Date(a.dateTime).getTime() - new Date(b.dateTime).getTime();
-              if (diff !== 0) return diff;
-              return String(a.id).localeCompare(String(b.id));
-            })
-        : [];
-      setAppointments(sorted);
+      const page = await fetchPage(null);
+      setAppointments(page.items);
+      setNextCursor(page.nextCursor);
+      hasMoreRef.current = Boolean(page.nextCursor);
+    } catch (err) {
+      console.error(err);
+    }
+  };
+
+  const handleLoadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      const page = await fetchPage(nextCursor);
+      setAppointments((current) => current.concat(page.items.filter((a) => !current.some((c) => c.id === a.id))));
+      setNextCursor(page.nextCursor);
+      hasMoreRef.current = Boolean(page.nextCursor);
     } catch (err) {
       console.error(err);
     }
   };
 
+  // Applies one change from the feed, keeping the list ordered by date/time and id like the API pages
+  const applyChange = (change) => {
+    const app = change.appointment;
+    setAppointments((current) => {
+      const rest = current.filter((a) => a.id !== app.id);
+      if (change.type === 'DELETED') return rest;
+      const existing = current.find((a) => a.id === app.id);
+      if (existing && (existing.version ?? -1) >= (app.version ?? 0)) return current;
+      const key = (a) => `${a.dateTime}|${a.id}`;
+      const position = rest.findIndex((a) => key(a) > key(app));
+      // Past the loaded pages: it will come with "Load more"
+      if (position < 0 && hasMoreRef.current) return rest;
+      const next = rest.slice();
+      next.splice(position < 0 ? next.length : position, 0, app);
+      return next;
+    });
+  };
+
   const nextStatus = (current) => {
     if (current === 'SCHEDULED') return 'IN_PROGRESS';
     if (current === 'IN_PROGRESS') return 'COMPLETED';
@@ -91,7 +195,6 @@ export default function Dashboard() {
       }, {
         headers: { Authorization: `Bearer ${token}` }
       });
-      fetchAppointments();
     } catch (err) {
       const msg = err?.response?.data?.message || 'Error cancelling appointment.';
       alert(msg);
@@ -112,7 +215,6 @@ export default function Dashboard() {
       }, {
         headers: { Authorization: `Bearer ${token}` }
       });
-      fetchAppointments();
     } catch (err) {
       const msg = err?.response?.data?.message || 'Error updating status.';
       alert(msg);
@@ -125,7 +227,6 @@ export default function Dashboard() {
       await axios.delete(`http://localhost:8080/api/appointments/${id}`, {
         headers: { Authorization: `Bearer ${token}` }
       });
-      fetchAppointments();
     } catch (err) {
       const msg = err?.response?.data?.message || 'Error deleting appointment.';
       alert(msg);
@@ -148,7 +249,6 @@ export default function Dashboard() {
       setNewDoctor('');
       setNewSpecialty('');
       setNewDate('');
-      fetchAppointments();
     } catch (err) {
       const msg = err?.response?.data?.message || 'Error creating appointment.';
       alert(msg);
@@ -298,6 +398,13 @@ export default function Dashboard() {
               </tbody>
             </table>
           </div>
+          {nextCursor && (
+            <div className="mt-4 text-center">
+              <button onClick={handleLoadMore} className="px-4 py-2 bg-gray-200 text-gray-800 rounded hover:bg-gray-300">
+                Carregar mais
+              </button>
+            </div>
+          )}
         </div>
       </div>
     </div>
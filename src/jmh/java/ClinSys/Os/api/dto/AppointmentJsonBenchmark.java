@@ -0,0 +1,64 @@
+package ClinSys.Os.api.dto;
+
+import ClinSys.Os.domain.model.AppointmentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of appointment lists with the ObjectMapper configuration Spring Boot uses (ms/op).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentJsonBenchmark {
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private ObjectWriter listWriter;
+    private List<AppointmentResponse> appointments;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = mapper.writerFor(TypeFactory.defaultInstance().constructCollectionType(List.class, AppointmentResponse.class));
+        LocalDateTime base = LocalDateTime.of(2026, 1, 5, 8, 0);
+        appointments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            appointments.add(AppointmentResponse.builder()
+                    .id(UUID.randomUUID())
+                    .patientName("Patient " + i)
+                    .doctorName("Dr. " + (i % 100))
+                    .specialty("Cardiology")
+                    .dateTime(base.plusMinutes(30L * i))
+                    .status(AppointmentStatus.values()[i % AppointmentStatus.values().length])
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return mapper.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        // Typed writer, streamed to a sink: what the message converter does for a response body
+        listWriter.writeValue(OutputStream.nullOutputStream(), appointments);
+    }
+}
@@ -0,0 +1,70 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.Appointment;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed stand-in for {@link AppointmentRepository} so benchmarks run without a database.
+ * Implements the CRUD methods used by the services; any other repository method throws
+ * {@link UnsupportedOperationException}.
+ */
+public final class InMemoryAppointmentRepository {
+
+    private InMemoryAppointmentRepository() {
+    }
+
+    public static AppointmentRepository create() {
+        Map<UUID, Appointment> rows = new ConcurrentHashMap<>();
+        return (AppointmentRepository) Proxy.newProxyInstance(
+                AppointmentRepository.class.getClassLoader(),
+                new Class<?>[]{AppointmentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> save(rows, (Appointment) args[0]);
+                    case "saveAll" -> {
+                        List<Appointment> saved = new ArrayList<>();
+                        ((Iterable<?>) args[0]).forEach(a -> saved.add(save(rows, (Appointment) a)));
+                        yield saved;
+                    }
+                    case "findById" -> Optional.ofNullable(rows.get((UUID) args[0]));
+                    case "existsById" -> rows.containsKey((UUID) args[0]);
+                    case "findAll" -> {
+                        if (args != null && args.length > 0) {
+                            throw new UnsupportedOperationException(method.toString());
+                        }
+                        yield new ArrayList<>(rows.values());
+                    }
+                    case "count" -> (long) rows.size();
+                    case "delete" -> rows.remove(((Appointment) args[0]).getId());
+                    case "deleteById" -> rows.remove((UUID) args[0]);
+                    case "deleteAll" -> {
+                        if (args == null || args.length == 0) {
+                            rows.clear();
+                        } else {
+                            ((Iterable<?>) args[0]).forEach(a -> rows.remove(((Appointment) a).getId()));
+                        }
+                        yield null;
+                    }
+                    case "flush" -> null;
+                    case "findDoctorSpecialties" -> List.of();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryAppointmentRepository" + rows.keySet();
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private static Appointment save(Map<UUID, Appointment> rows, Appointment appointment) {
+        if (appointment.getId() == null) {
+            appointment.setId(UUID.randomUUID());
+        }
+        rows.put(appointment.getId(), appointment);
+        return appointment;
+    }
+}
@@ -0,0 +1,46 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.OutboxEvent;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only stand-in for {@link OutboxEventRepository} so benchmarks include the cost of recording outbox events.
+ * Only {@code save} and {@code saveAll} are supported.
+ */
+public final class InMemoryOutboxEventRepository {
+
+    private InMemoryOutboxEventRepository() {
+    }
+
+    public static OutboxEventRepository create() {
+        ConcurrentLinkedQueue<OutboxEvent> rows = new ConcurrentLinkedQueue<>();
+        AtomicLong ids = new AtomicLong();
+        return (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxEventRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> save(rows, ids, (OutboxEvent) args[0]);
+                    case "saveAll" -> {
+                        List<OutboxEvent> saved = new ArrayList<>();
+                        ((Iterable<?>) args[0]).forEach(e -> saved.add(save(rows, ids, (OutboxEvent) e)));
+                        yield saved;
+                    }
+                    case "count" -> (long) rows.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryOutboxEventRepository[" + rows.size() + "]";
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private static OutboxEvent save(ConcurrentLinkedQueue<OutboxEvent> rows, AtomicLong ids, OutboxEvent event) {
+        event.setId(ids.incrementAndGet());
+        rows.add(event);
+        return event;
+    }
+}
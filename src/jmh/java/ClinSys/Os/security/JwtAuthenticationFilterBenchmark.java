@@ -0,0 +1,95 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JWT filter (ops/sec).
+ * {@code cached} hits the token cache; {@code uncached} verifies the signature and resolves the
+ * principal on every request, either from the user store or from the role claim.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    private JwtTokenCache cache;
+    private JwtTokenCache disabledCache;
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter claimsFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtService jwtService = new JwtService(SECRET, "primary", "", 86_400_000L);
+        User user = User.builder().username("bench").password("x").role(Role.DOCTOR).build();
+        // Stand-in for the database-backed user lookup
+        Map<String, User> users = Map.of(user.getUsername(), user);
+        UserDetailsService userDetailsService = username -> {
+            User found = users.get(username);
+            if (found == null) {
+                throw new UsernameNotFoundException("User not found");
+            }
+            return found;
+        };
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache = new JwtTokenCache(10_000, Duration.ofMinutes(5));
+        cachedFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, cache, false, registry);
+        disabledCache = new JwtTokenCache(0, Duration.ofMinutes(5));
+        uncachedFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, disabledCache, false, registry);
+        claimsFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, disabledCache, true, registry);
+
+        request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(Map.of("role", "DOCTOR"), user));
+        response = new MockHttpServletResponse();
+        cachedFilter.doFilterInternal(request, response, CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object cached() throws Exception {
+        // The filter skips requests that are already authenticated
+        SecurityContextHolder.clearContext();
+        cachedFilter.doFilterInternal(request, response, CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Object uncached() throws Exception {
+        SecurityContextHolder.clearContext();
+        // Caffeine evicts asynchronously even at size 0
+        disabledCache.invalidateAll();
+        uncachedFilter.doFilterInternal(request, response, CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Object uncachedPrincipalFromClaims() throws Exception {
+        SecurityContextHolder.clearContext();
+        disabledCache.invalidateAll();
+        claimsFilter.doFilterInternal(request, response, CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,68 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation throughput (tokens/sec).
+ * The {@code legacy*} benchmarks reproduce the previous behaviour (key decoded and parser built
+ * on every call) so both variants are compared in the same run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, "primary", "", 86_400_000L);
+        user = User.builder().username("bench").password("x").role(Role.ADMIN).build();
+        token = jwtService.generateToken(Map.of("role", "ADMIN"), user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(Map.of("role", "ADMIN"), user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public String legacyGenerateToken() {
+        return Jwts.builder()
+                .claims(Map.of("role", "ADMIN"))
+                .subject(user.getUsername())
+                .expiration(new java.util.Date(System.currentTimeMillis() + 86_400_000L))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims legacyParseClaims() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,89 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.InMemoryAppointmentRepository;
+import ClinSys.Os.domain.repository.InMemoryOutboxEventRepository;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appointment service hot paths against the in-memory repository stand-in (ops/sec).
+ * {@code create} includes the scheduling overlap check and the outbox record; the index is rebuilt every iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentServiceBenchmark {
+
+    private static final int DOCTORS = 100;
+    private static final int APPOINTMENTS = 10_000;
+
+    private AppointmentService service;
+    private Appointment appointment;
+    private UUID[] ids;
+    private LocalDateTime firstSlot;
+    private long sequence;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AppointmentRepository repository = InMemoryAppointmentRepository.create();
+        SchedulingEngine scheduling = new SchedulingEngine(repository, null, Duration.ofMinutes(30), Duration.ofMinutes(15), 64);
+        var outbox = new AppointmentOutbox(InMemoryOutboxEventRepository.create(), new ObjectMapper().findAndRegisterModules());
+        service = new AppointmentService(repository, scheduling, event -> {
+        }, outbox, TransactionOperations.withoutTransaction(), null); // Every id looked up exists: the archive is never read
+        firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        ids = new UUID[APPOINTMENTS];
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            ids[i] = repository.save(appointment(i, firstSlot.minusYears(1))).getId();
+        }
+        appointment = repository.findById(ids[0]).orElseThrow();
+        sequence = 0;
+    }
+
+    @Benchmark
+    public AppointmentResponse mapToResponse() {
+        return AppointmentService.mapToResponse(appointment);
+    }
+
+    @Benchmark
+    public AppointmentResponse findById() {
+        return service.findById(ids[(int) (sequence++ % APPOINTMENTS)]);
+    }
+
+    @Benchmark
+    public AppointmentResponse create() {
+        long n = sequence++;
+        return service.create(AppointmentRequest.builder()
+                .patientName("Patient " + n)
+                .doctorName("Dr. " + (n % DOCTORS))
+                .specialty("Cardiology")
+                .dateTime(firstSlot.plusMinutes(30 * (n / DOCTORS)))
+                .build());
+    }
+
+    private static Appointment appointment(int i, LocalDateTime base) {
+        return Appointment.builder()
+                .patientName("Patient " + i)
+                .doctorName("Dr. " + (i % DOCTORS))
+                .specialtyName("Cardiology")
+                .dateTime(base.plusMinutes(30L * (i / DOCTORS)))
+                .status(AppointmentStatus.SCHEDULED)
+                .build();
+    }
+}
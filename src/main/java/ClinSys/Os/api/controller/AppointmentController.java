@@ -1,21 +1,52 @@
 package ClinSys.Os.api.controller;
 
+import ClinSys.Os.api.dto.AppointmentFilter;
 import ClinSys.Os.api.dto.AppointmentRequest;
 import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.api.dto.AppointmentStatsResponse;
+import ClinSys.Os.api.dto.AvailableSlotResponse;
+import ClinSys.Os.api.dto.BatchCreateResponse;
+import ClinSys.Os.api.dto.CursorPage;
+import ClinSys.Os.config.ResponseEncodingConfig;
+import ClinSys.Os.service.AppointmentFields;
+import ClinSys.Os.service.AgendaService;
+import ClinSys.Os.service.AppointmentExportService;
+import ClinSys.Os.service.AppointmentImportService;
 import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.AppointmentStatsService;
+import ClinSys.Os.service.AvailabilityService;
+import ClinSys.Os.service.IdempotencyService;
+import ClinSys.Os.service.feed.AppointmentChangeFeed;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -24,42 +55,170 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearer-key")
 public class AppointmentController {
 
+    private static final List<ExportType> EXPORT_TYPES = List.of(
+            new ExportType(MediaType.APPLICATION_NDJSON, AppointmentExportService.Format.NDJSON, "ndjson"),
+            new ExportType(ResponseEncodingConfig.CBOR_SEQUENCE, AppointmentExportService.Format.CBOR_SEQUENCE, "cbors"),
+            new ExportType(ResponseEncodingConfig.SMILE, AppointmentExportService.Format.SMILE, "smile"));
+
     private final AppointmentService service;
+    private final AppointmentExportService exportService;
+    private final AvailabilityService availabilityService;
+    private final AgendaService agendaService;
+    private final AppointmentStatsService statsService;
+    private final AppointmentImportService importService;
+    private final AppointmentChangeFeed changeFeed;
+    private final IdempotencyService idempotency;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
-    @Operation(summary = "Create appointment", description = "Registers a new appointment (Initial status: SCHEDULED)")
-    public ResponseEntity<AppointmentResponse> create(@RequestBody @Valid AppointmentRequest request) {
-        var response = service.create(request);
+    @Operation(summary = "Create appointment", description = "Registers a new appointment (Initial status: SCHEDULED). "
+            + "A retry with the same Idempotency-Key and body gets the original response, with Idempotent-Replayed: true")
+    public ResponseEntity<AppointmentResponse> create(
+            @RequestBody @Valid AppointmentRequest request,
+            @Parameter(description = "Unique key of this request (e.g. a UUID), reused by its retries") @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
+    ) {
+        var result = idempotency.execute(idempotencyKey, request, AppointmentResponse.class, () -> service.create(request));
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
-                .buildAndExpand(response.getId())
+                .buildAndExpand(result.response().getId())
                 .toUri();
-        return ResponseEntity.created(uri).body(response);
+        return created(uri, result);
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    @Operation(summary = "Create appointments in batch", description = "Creates every valid appointment of the list and reports the result of each item (CREATED or REJECTED with errors)")
+    public ResponseEntity<BatchCreateResponse> createBatch(@RequestBody List<AppointmentRequest> requests) {
+        return ResponseEntity.ok(importService.createAll(requests));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    @Operation(summary = "Import appointments from CSV", description = "CSV with header patientName,doctorName,specialty,dateTime (ISO-8601). Reports the result of each row")
+    public ResponseEntity<BatchCreateResponse> importCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (var in = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importCsv(in));
+        }
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
-    @Operation(summary = "List appointments", description = "Returns all registered appointments")
-    public ResponseEntity<List<AppointmentResponse>> findAll() {
-        return ResponseEntity.ok(service.findAll());
+    @Operation(summary = "List appointments", description = "Returns a page of appointments ordered by date/time. Use nextCursor to fetch the following page. "
+            + "Also available as CBOR (Accept: application/cbor) or Smile (Accept: application/x-jackson-smile); fields=id,dateTime,status keeps only those properties")
+    public ResponseEntity<CursorPage<AppointmentResponse>> findPage(
+            @ParameterObject AppointmentFilter filter,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 500)") @RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(service.findPage(filter, cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, ResponseEncodingConfig.CBOR_SEQUENCE_VALUE, ResponseEncodingConfig.SMILE_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export appointments", description = "Streams every appointment as newline-delimited JSON, or as a CBOR sequence "
+            + "(Accept: application/cbor-seq) or a Smile stream (Accept: application/x-jackson-smile). "
+            + "fields=id,dateTime,status keeps only those properties. The stream is gzip-compressed when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(description = "Comma-separated properties to export, e.g. id,dateTime,status (default: all)") @RequestParam(required = false) String fields
+    ) {
+        ExportType type = exportType(accept);
+        FilterProvider filters = AppointmentFields.parse(fields);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so every periodic flush reaches the client instead of waiting for the deflater
+                var compressed = new GZIPOutputStream(out, 8192, true);
+                exportService.export(compressed, type.format(), filters);
+                compressed.finish();
+            } else {
+                exportService.export(out, type.format(), filters);
+            }
+        };
+        var response = ResponseEntity.ok()
+                .contentType(type.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=appointments." + type.extension())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Stream appointment changes", description = "Server-sent events with every created, updated or deleted appointment visible to the caller. "
+            + "Starts with a 'ready' event; each 'appointment' event id is a sequence number. Reconnect with Last-Event-ID (or since) to resume; "
+            + "a 'reset' event means changes were missed and the list must be reloaded")
+    public SseEmitter stream(
+            Authentication authentication,
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String specialty,
+            @Parameter(description = "Sequence of the last change applied (same as Last-Event-ID)") @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        var filter = AppointmentChangeFeed.Filter.of(authentication.getAuthorities(), doctorName, specialty);
+        return changeFeed.subscribe(filter, lastEventId != null ? lastEventId : since);
+    }
+
+    @GetMapping("/agenda")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Doctor's daily agenda", description = "Returns every appointment of a doctor on one day (canceled ones included), ordered by time")
+    public ResponseEntity<List<AppointmentResponse>> findAgenda(
+            @RequestParam String doctorName,
+            @Parameter(description = "Day of the agenda") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(agendaService.findAgenda(doctorName, date));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Appointment statistics", description = "Counts per status and per group (status, doctor, specialty, day, week or month), with the utilization of bookable slots. Results are cached for clinsys.stats.cache-ttl (0 disables the cache), so they may be that old")
+    public ResponseEntity<AppointmentStatsResponse> getStats(
+            @Parameter(description = "status, doctor, specialty, day, week or month") @RequestParam(defaultValue = "status") String groupBy,
+            @Parameter(description = "First day (inclusive, defaults to 30 days before 'to')") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive, defaults to today)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String specialty
+    ) {
+        return ResponseEntity.ok(statsService.getStats(groupBy, from, to, doctorName, specialty));
+    }
+
+    @GetMapping("/availability")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Search free slots", description = "Returns free slots of a doctor, or of every doctor of a specialty, within a date range")
+    public ResponseEntity<List<AvailableSlotResponse>> findAvailableSlots(
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String specialty,
+            @Parameter(description = "First day (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Slot length in minutes (defaults to the appointment duration)") @RequestParam(required = false) Integer slotMinutes,
+            @Parameter(description = "Maximum number of slots (max 1000)") @RequestParam(defaultValue = "200") int limit
+    ) {
+        Duration slotLength = slotMinutes != null ? Duration.ofMinutes(slotMinutes) : null;
+        return ResponseEntity.ok(availabilityService.findAvailableSlots(doctorName, specialty, from, to, slotLength, limit));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
-    @Operation(summary = "Find appointment by ID", description = "Returns details of a specific appointment")
+    @Operation(summary = "Find appointment by ID", description = "Returns details of a specific appointment, with its version as ETag. Send If-None-Match to get 304 when it has not changed")
     public ResponseEntity<AppointmentResponse> findById(@PathVariable UUID id) {
-        return ResponseEntity.ok(service.findById(id));
+        var response = service.findById(id);
+        // A matching If-None-Match turns this into a 304 without a body
+        return ResponseEntity.ok().eTag(eTag(response)).body(response);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
-    @Operation(summary = "Update appointment", description = "Updates data of an existing appointment")
+    @Operation(summary = "Update appointment", description = "Updates data of an existing appointment. With If-Match, fails with 412 if the appointment changed since that ETag was read")
     public ResponseEntity<AppointmentResponse> update(
             @PathVariable UUID id,
-            @RequestBody @Valid AppointmentRequest request
+            @RequestBody @Valid AppointmentRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(service.update(id, request));
+        var response = service.update(id, request, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(response)).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -69,4 +228,90 @@ public class AppointmentController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    static ResponseEntity<AppointmentResponse> created(URI uri, IdempotencyService.Result<AppointmentResponse> result) {
+        var response = ResponseEntity.created(uri);
+        if (result.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.response());
+    }
+
+    static String eTag(AppointmentResponse response) {
+        return "\"" + response.getVersion() + "\"";
+    }
+
+    /**
+     * Reads the version from an If-Match header such as {@code "3"}.
+     * If-Match uses strong comparison, so weak tags never match.
+     *
+     * @return The version, null when there is no header or it is {@code *}, or -1 when it cannot match any version.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * The most specific export representation the client accepts; NDJSON when it accepts anything.
+     */
+    private static ExportType exportType(String accept) {
+        List<MediaType> accepted = new ArrayList<>(accept == null ? List.of() : MediaType.parseMediaTypes(accept));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            for (ExportType type : EXPORT_TYPES) {
+                if (mediaType.includes(type.mediaType())) {
+                    return type;
+                }
+            }
+        }
+        return EXPORT_TYPES.get(0);
+    }
+
+    /**
+     * Whether the client accepts gzip with a non-zero weight, listed itself (or as x-gzip) or through {@code *}.
+     * An explicit {@code gzip;q=0} wins over {@code *}; a weight that does not parse counts as 0.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        weight = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        weight = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = weight;
+            } else if (coding.equals("*")) {
+                any = weight;
+            }
+        }
+        Double weight = gzip != null ? gzip : any;
+        return weight != null && weight > 0;
+    }
+
+    private record ExportType(MediaType mediaType, AppointmentExportService.Format format, String extension) {
+    }
 }
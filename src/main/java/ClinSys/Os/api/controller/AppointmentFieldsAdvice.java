@@ -0,0 +1,41 @@
+package ClinSys.Os.api.controller;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies {@code ?fields=} to the appointments of any response written by a Jackson converter (JSON, CBOR, Smile).
+ * The value is validated by {@link AppointmentFieldsInterceptor} before the handler runs. Error responses are left alone.
+ */
+@RestControllerAdvice
+public class AppointmentFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(
+            MappingJacksonValue bodyContainer,
+            MediaType contentType,
+            MethodParameter returnType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        // The representation depends on Accept, so caches must not hand a CBOR body to a JSON client
+        if (!response.getHeaders().getVary().contains(HttpHeaders.ACCEPT)) {
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (returnType.hasMethodAnnotation(ExceptionHandler.class) || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        if (servletRequest.getServletRequest().getAttribute(AppointmentFieldsInterceptor.FILTERS_ATTRIBUTE) instanceof FilterProvider filters) {
+            bodyContainer.setFilters(filters);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ClinSys.Os.api.controller;
+
+import ClinSys.Os.service.AppointmentFields;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Parses {@code ?fields=} before the handler runs, so an invalid value is rejected with {@code 400} before a
+ * create or update commits; {@link AppointmentFieldsAdvice} applies the parsed filters to the response.
+ */
+public class AppointmentFieldsInterceptor implements HandlerInterceptor {
+
+    static final String FILTERS_ATTRIBUTE = AppointmentFieldsInterceptor.class.getName() + ".filters";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String fields = request.getParameter(AppointmentFields.PARAMETER);
+        if (fields != null && handler instanceof HandlerMethod) {
+            request.setAttribute(FILTERS_ATTRIBUTE, AppointmentFields.parse(fields));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package ClinSys.Os.api.controller;
+
+import ClinSys.Os.api.dto.AppointmentFilter;
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.api.dto.CursorPage;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.IdempotencyService;
+import ClinSys.Os.service.async.BlockingCallExecutor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Same appointment endpoints as {@link AppointmentController}, answered asynchronously: the service call runs on
+ * {@link BlockingCallExecutor} and the request thread is released until it completes.
+ * Responses, status codes and roles are the same; a full queue, or a call still queued after
+ * {@code clinsys.async.timeout}, is answered with 429, and a call that started but did not finish in time with 504.
+ */
+@RestController
+@RequestMapping("/api/async/appointments")
+@RequiredArgsConstructor
+@Tag(name = "Appointments (async)", description = "Appointment endpoints served on a bounded worker pool")
+@SecurityRequirement(name = "bearer-key")
+public class AsyncAppointmentController {
+
+    private final AppointmentService service;
+    private final BlockingCallExecutor executor;
+    private final IdempotencyService idempotency;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    @Operation(summary = "Create appointment", description = "Registers a new appointment (Initial status: SCHEDULED). "
+            + "A retry with the same Idempotency-Key and body gets the original response, with Idempotent-Replayed: true")
+    public CompletableFuture<ResponseEntity<AppointmentResponse>> create(
+            @RequestBody @Valid AppointmentRequest request,
+            @Parameter(description = "Unique key of this request (e.g. a UUID), reused by its retries") @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
+    ) {
+        // Built on the request thread: the current request is not available to the worker
+        UriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
+        return executor.submit(() -> idempotency.execute(idempotencyKey, request, AppointmentResponse.class, () -> service.create(request)))
+                .thenApply(result -> AppointmentController.created(location.buildAndExpand(result.response().getId()).toUri(), result));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "List appointments", description = "Returns a page of appointments ordered by date/time. Use nextCursor to fetch the following page")
+    public CompletableFuture<ResponseEntity<CursorPage<AppointmentResponse>>> findPage(
+            @ParameterObject AppointmentFilter filter,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 500)") @RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return executor.submit(() -> service.findPage(filter, cursor, size)).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Find appointment by ID", description = "Returns details of a specific appointment, with its version as ETag. Send If-None-Match to get 304 when it has not changed")
+    public CompletableFuture<ResponseEntity<AppointmentResponse>> findById(@PathVariable UUID id) {
+        return executor.submit(() -> service.findById(id))
+                .thenApply(response -> ResponseEntity.ok().eTag(AppointmentController.eTag(response)).body(response));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Update appointment", description = "Updates data of an existing appointment. With If-Match, fails with 412 if the appointment changed since that ETag was read")
+    public CompletableFuture<ResponseEntity<AppointmentResponse>> update(
+            @PathVariable UUID id,
+            @RequestBody @Valid AppointmentRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Long expectedVersion = AppointmentController.expectedVersion(ifMatch);
+        return executor.submit(() -> service.update(id, request, expectedVersion))
+                .thenApply(response -> ResponseEntity.ok().eTag(AppointmentController.eTag(response)).body(response));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Delete appointment", description = "Removes an appointment")
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable UUID id) {
+        return executor.submit(() -> {
+            service.delete(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+}
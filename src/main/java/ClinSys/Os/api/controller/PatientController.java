@@ -0,0 +1,37 @@
+package ClinSys.Os.api.controller;
+
+import ClinSys.Os.api.dto.CursorPage;
+import ClinSys.Os.api.dto.PatientResponse;
+import ClinSys.Os.service.PatientSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+@Tag(name = "Patients", description = "Endpoints for patient lookup")
+@SecurityRequirement(name = "bearer-key")
+public class PatientController {
+
+    private final PatientSearchService searchService;
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    @Operation(summary = "Search patients", description = "Finds patients by part of the name, tolerating typos, best matches first. Use nextCursor to fetch the following page")
+    public ResponseEntity<CursorPage<PatientResponse>> search(
+            @Parameter(description = "Part of the patient's name") @RequestParam String q,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "" + PatientSearchService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(searchService.search(q, cursor, size));
+    }
+}
@@ -0,0 +1,17 @@
+package ClinSys.Os.api.dto;
+
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentChangeMessage {
+    private long sequence; // Also the SSE event id; send it back as Last-Event-ID to resume
+    private ChangeType type;
+    private AppointmentResponse appointment;
+}
@@ -20,4 +20,5 @@ public class AppointmentResponse {
     private String specialty;
     private LocalDateTime dateTime;
     private AppointmentStatus status;
+    private Long version; // Also sent as the ETag; echo it in If-Match to update
 }
@@ -0,0 +1,35 @@
+package ClinSys.Os.api.dto;
+
+import ClinSys.Os.domain.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentStatsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private String groupBy;
+    private long total;
+    private Map<AppointmentStatus, Long> byStatus;
+    private List<Bucket> buckets;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Bucket {
+        private String key; // Status, doctor, specialty, day, week (its Monday) or month (yyyy-MM)
+        private long total;
+        private Map<AppointmentStatus, Long> byStatus;
+        private Double utilization; // Non-canceled appointments / bookable slots; null when grouping by status
+    }
+}
@@ -0,0 +1,18 @@
+package ClinSys.Os.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableSlotResponse {
+    private String doctorName;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,18 @@
+package ClinSys.Os.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchCreateResponse {
+    private int created;
+    private int rejected;
+    private List<BatchItemResult> results;
+}
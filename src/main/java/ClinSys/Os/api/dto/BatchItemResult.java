@@ -0,0 +1,26 @@
+package ClinSys.Os.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItemResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    private int index; // Position of the row in the request (0-based, header excluded for CSV)
+    private Status status;
+    private UUID id;
+    private List<String> errors;
+}
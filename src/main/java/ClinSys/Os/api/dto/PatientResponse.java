@@ -0,0 +1,17 @@
+package ClinSys.Os.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientResponse {
+    private UUID id;
+    private String name;
+}
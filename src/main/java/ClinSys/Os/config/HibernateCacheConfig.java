@@ -0,0 +1,93 @@
+package ClinSys.Os.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache, backed by local Caffeine caches through JCache.
+ * Each region is created here with its own size and TTL; Hibernate is set to fail on any region
+ * that is not declared, so a renamed region cannot silently fall back to an unbounded cache.
+ * The cache is per instance: the TTL bounds how long another instance's writes can go unseen.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final String APPOINTMENTS_REGION = "appointments";
+    private static final String USERS_REGION = "users";
+    private static final String USERS_BY_USERNAME_REGION = "users-by-username";
+    private static final String REFERENCE_DATA_REGION = "reference-data";
+
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${clinsys.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${clinsys.cache.appointments.max-size:10000}")
+    private long appointmentsMaxSize;
+
+    @Value("${clinsys.cache.appointments.ttl:10m}")
+    private Duration appointmentsTtl;
+
+    @Value("${clinsys.cache.reference-data.max-size:50000}")
+    private long referenceDataMaxSize;
+
+    @Value("${clinsys.cache.reference-data.ttl:1h}")
+    private Duration referenceDataTtl;
+
+    @Value("${clinsys.cache.users.max-size:1000}")
+    private long usersMaxSize;
+
+    @Value("${clinsys.cache.users.ttl:5m}")
+    private Duration usersTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A unique URI gives each application context its own manager (several contexts may share a JVM in tests)
+        CacheManager cacheManager = provider.getCacheManager(URI.create("clinsys:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(APPOINTMENTS_REGION, region(appointmentsMaxSize, appointmentsTtl));
+        cacheManager.createCache(REFERENCE_DATA_REGION, region(referenceDataMaxSize, referenceDataTtl));
+        cacheManager.createCache(USERS_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(USERS_BY_USERNAME_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(DEFAULT_QUERY_RESULTS_REGION, region(usersMaxSize, usersTtl));
+        // One entry per table; must never expire before the query results that depend on it
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (enabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,122 @@
+package ClinSys.Os.config;
+
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.NamedReference;
+import ClinSys.Os.domain.model.Patient;
+import ClinSys.Os.domain.model.Specialty;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Migration 2: moves doctor, patient and specialty names from appointments into reference tables.
+ * Each distinct name becomes a row, deduplicated the same way new names are (see {@link NamedReference});
+ * appointments are then pointed at those rows and the text columns dropped.
+ * Written in Java because the ids are derived from the names by the application.
+ * Every step is skipped when already done, so databases upgraded in place before migrations existed
+ * (and baselined at version 1) end up with the same schema.
+ * Flyway picks it up as a {@link JavaMigration} bean.
+ */
+@Slf4j
+@Component
+public class ReferenceDataMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final List<Reference> REFERENCES = List.of(
+            new Reference("patient_name", "patient_id", "patients", "fk_appointments_patient", Patient::idOf),
+            new Reference("doctor_name", "doctor_id", "doctors", "fk_appointments_doctor", Doctor::idOf),
+            new Reference("specialty", "specialty_id", "specialties", "fk_appointments_specialty", Specialty::idOf)
+    );
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2");
+    }
+
+    @Override
+    public String getDescription() {
+        return "Reference data";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        REFERENCES.forEach(reference -> migrate(jdbcTemplate, reference));
+    }
+
+    private void migrate(JdbcTemplate jdbcTemplate, Reference reference) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + reference.table()
+                + " (id uuid NOT NULL PRIMARY KEY, name varchar(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_" + reference.table() + "_name ON " + reference.table() + " (name)");
+        jdbcTemplate.execute("ALTER TABLE appointments ADD COLUMN IF NOT EXISTS " + reference.idColumn() + " uuid");
+
+        if (hasColumn(jdbcTemplate, reference.textColumn())) {
+            copyNames(jdbcTemplate, reference);
+            // Also drops the indexes and the overlap constraint built on the text column
+            jdbcTemplate.execute("ALTER TABLE appointments DROP COLUMN " + reference.textColumn());
+        }
+
+        jdbcTemplate.execute("ALTER TABLE appointments ALTER COLUMN " + reference.idColumn() + " SET NOT NULL");
+        // A schema update may already have added the key under a generated name
+        Integer keys = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conrelid = 'appointments'::regclass AND contype = 'f' AND confrelid = ?::regclass",
+                Integer.class, reference.table());
+        if (keys == null || keys == 0) {
+            jdbcTemplate.execute("ALTER TABLE appointments ADD CONSTRAINT " + reference.foreignKey()
+                    + " FOREIGN KEY (" + reference.idColumn() + ") REFERENCES " + reference.table());
+        }
+    }
+
+    private static boolean hasColumn(JdbcTemplate jdbcTemplate, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = 'appointments' AND column_name = ?",
+                Integer.class, column);
+        return count != null && count > 0;
+    }
+
+    private static void copyNames(JdbcTemplate jdbcTemplate, Reference reference) {
+        // Sorted bytewise (capitals first), so the spelling kept for names that differ only in case or spacing does not depend on row order
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT name FROM (SELECT DISTINCT " + reference.textColumn() + " AS name FROM appointments) names"
+                        + " ORDER BY name COLLATE \"C\"", String.class);
+        jdbcTemplate.batchUpdate("INSERT INTO " + reference.table() + " (id, name) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                names, BATCH_SIZE, (ps, name) -> {
+                    ps.setObject(1, reference.idOf().apply(name));
+                    ps.setString(2, NamedReference.normalize(name));
+                });
+        // One set-based UPDATE through a name -> id table instead of an UPDATE per name
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE reference_names (name text PRIMARY KEY, id uuid NOT NULL)");
+        jdbcTemplate.batchUpdate("INSERT INTO reference_names (name, id) VALUES (?, ?)",
+                names, BATCH_SIZE, (ps, name) -> {
+                    ps.setString(1, name);
+                    ps.setObject(2, reference.idOf().apply(name));
+                });
+        int updated = jdbcTemplate.update("UPDATE appointments a SET " + reference.idColumn() + " = r.id FROM reference_names r"
+                + " WHERE a." + reference.textColumn() + " = r.name AND a." + reference.idColumn() + " IS NULL");
+        jdbcTemplate.execute("DROP TABLE reference_names");
+        log.info("Migrated {} appointments from {} distinct values of {} to {}",
+                updated, names.size(), reference.textColumn(), reference.table());
+    }
+
+    private record Reference(String textColumn, String idColumn, String table, String foreignKey, Function<String, UUID> idOf) {
+    }
+}
@@ -0,0 +1,56 @@
+package ClinSys.Os.config;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.service.AppointmentFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Response representations besides JSON, chosen by the {@code Accept} header: CBOR ({@code application/cbor}) and
+ * Smile ({@code application/x-jackson-smile}).
+ * Both use the application's ObjectMapper settings, so they carry the same properties and values as the JSON
+ * representation; Smile also writes every property name, and short repeated values such as statuses and doctor
+ * names, once per response and back-references them afterwards.
+ * The converters replace Spring's defaults for these types and keep their place after JSON, so JSON stays the
+ * representation for clients that accept anything.
+ */
+@Configuration
+public class ResponseEncodingConfig {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+    /** Concatenated CBOR items (RFC 8742), the binary counterpart of NDJSON. */
+    public static final String CBOR_SEQUENCE_VALUE = "application/cbor-seq";
+    public static final MediaType CBOR_SEQUENCE = MediaType.parseMediaType(CBOR_SEQUENCE_VALUE);
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer appointmentFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(AppointmentResponse.class, AppointmentFields.FilterMixIn.class)
+                .filters(AppointmentFields.ALL);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(smileFactory()));
+    }
+
+    public static SmileFactory smileFactory() {
+        return SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+}
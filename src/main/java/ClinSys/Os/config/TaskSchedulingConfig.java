@@ -0,0 +1,13 @@
+package ClinSys.Os.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. the outbox relay).
+ * With virtual threads enabled, Spring Boot runs them on a virtual-thread scheduler.
+ */
+@Configuration
+@EnableScheduling
+public class TaskSchedulingConfig {
+}
@@ -0,0 +1,15 @@
+package ClinSys.Os.config;
+
+import ClinSys.Os.api.controller.AppointmentFieldsInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AppointmentFieldsInterceptor());
+    }
+}
@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -14,21 +17,35 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "appointments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "appointments")
+// The schema is managed by the migrations in db/migration; these indexes mirror them (except the partial ones) for generated test schemas
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_date_time_id", columnList = "dateTime, id"),
+        @Index(name = "idx_appointments_doctor_id_date_time_id", columnList = "doctor_id, dateTime, id"),
+        @Index(name = "idx_appointments_specialty_id_date_time_id", columnList = "specialty_id, dateTime, id"),
+        @Index(name = "idx_appointments_patient_id_date_time", columnList = "patient_id, dateTime"),
+        @Index(name = "idx_appointments_status_date_time_id", columnList = "status, dateTime, id"),
+        // Covers the statistics GROUP BY queries, so they are answered from the index alone
+        @Index(name = "idx_appointments_stats_refs", columnList = "dateTime, doctor_id, specialty_id, status")
+})
 public class Appointment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false)
-    private String patientName;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_patient"))
+    private Patient patient;
 
-    @Column(nullable = false)
-    private String doctorName;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_doctor"))
+    private Doctor doctor;
 
-    @Column(nullable = false)
-    private String specialty;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "specialty_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_specialty"))
+    private Specialty specialty;
 
     @Column(nullable = false)
     private LocalDateTime dateTime;
@@ -36,4 +53,61 @@ public class Appointment {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AppointmentStatus status;
+
+    @Version
+    @ColumnDefault("0") // Existing rows start at version 0 when the column is added
+    @Column(nullable = false)
+    private Long version;
+
+    public String getPatientName() {
+        return patient == null ? null : patient.getName();
+    }
+
+    public String getDoctorName() {
+        return doctor == null ? null : doctor.getName();
+    }
+
+    public String getSpecialtyName() {
+        return specialty == null ? null : specialty.getName();
+    }
+
+    /**
+     * Points the appointment at the patient with this name; a different spelling of the current patient keeps it.
+     * References to rows that do not exist yet are created when the appointment is saved.
+     */
+    public void setPatientName(String patientName) {
+        if (patient == null || !patient.getId().equals(Patient.idOf(patientName))) {
+            patient = Patient.named(patientName);
+        }
+    }
+
+    public void setDoctorName(String doctorName) {
+        if (doctor == null || !doctor.getId().equals(Doctor.idOf(doctorName))) {
+            doctor = Doctor.named(doctorName);
+        }
+    }
+
+    public void setSpecialtyName(String specialtyName) {
+        if (specialty == null || !specialty.getId().equals(Specialty.idOf(specialtyName))) {
+            specialty = Specialty.named(specialtyName);
+        }
+    }
+
+    public static class AppointmentBuilder {
+
+        public AppointmentBuilder patientName(String patientName) {
+            this.patient = patientName == null ? null : Patient.named(patientName);
+            return this;
+        }
+
+        public AppointmentBuilder doctorName(String doctorName) {
+            this.doctor = doctorName == null ? null : Doctor.named(doctorName);
+            return this;
+        }
+
+        public AppointmentBuilder specialtyName(String specialtyName) {
+            this.specialty = specialtyName == null ? null : Specialty.named(specialtyName);
+            return this;
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package ClinSys.Os.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Completed or canceled appointment moved out of {@code appointments} once its month was archived.
+ * Rows are written by {@code AppointmentArchiver} in bulk and never change afterwards.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+// In the migrations this index is a BRIN index, which JPA cannot declare
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_appointments_archive_date_time", columnList = "dateTime")
+})
+public class ArchivedAppointment {
+
+    @Id
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_archive_patient"))
+    private Patient patient;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_archive_doctor"))
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "specialty_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_archive_specialty"))
+    private Specialty specialty;
+
+    @Column(nullable = false)
+    private LocalDateTime dateTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Returns the appointment as it was when archived, detached from the persistence context.
+     */
+    public Appointment toAppointment() {
+        return Appointment.builder()
+                .id(id)
+                .patient(patient)
+                .doctor(doctor)
+                .specialty(specialty)
+                .dateTime(dateTime)
+                .status(status)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package ClinSys.Os.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request made with an {@code Idempotency-Key}, shared by every instance when the persistent store is enabled.
+ * {@code response} stays null while the first request is being processed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt")
+})
+public class IdempotencyRecord {
+
+    /** Digest of the caller and the key, so raw keys are never stored. */
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    /** JSON of the original response. */
+    @Column(length = 4000)
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
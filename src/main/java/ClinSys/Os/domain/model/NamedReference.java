@@ -0,0 +1,66 @@
+package ClinSys.Os.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Reference data identified by its name (doctors, patients, specialties).
+ * The id is derived from the normalized name: surrounding and repeated whitespace and letter case are ignored,
+ * so every spelling of a name maps to the same row and a lookup by name needs no query.
+ * The stored name is the spelling seen first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@MappedSuperclass
+public abstract class NamedReference {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    protected NamedReference(String kind, String name) {
+        this.name = normalize(name);
+        this.id = idOf(kind, name);
+    }
+
+    /**
+     * @return The name without surrounding whitespace and with inner whitespace collapsed to single spaces.
+     */
+    public static String normalize(String name) {
+        return name.strip().replaceAll("\\s+", " ");
+    }
+
+    protected static UUID idOf(String kind, String name) {
+        String key = kind + ":" + normalize(name).toLowerCase(Locale.ROOT);
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // Ids embed the kind of reference, and accessors let Hibernate proxies compare equal to their entity
+        return this == o || o instanceof NamedReference other && Objects.equals(getId(), other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
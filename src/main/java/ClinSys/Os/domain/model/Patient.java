@@ -0,0 +1,41 @@
+package ClinSys.Os.domain.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "reference-data")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_name", columnList = "name", unique = true)
+})
+public class Patient extends NamedReference {
+
+    private static final String KIND = "patient";
+
+    private Patient(String name) {
+        super(KIND, name);
+    }
+
+    /**
+     * @return An unsaved patient with the given name; its id is the id of the stored patient with that name, if any.
+     */
+    public static Patient named(String name) {
+        return new Patient(name);
+    }
+
+    public static UUID idOf(String name) {
+        return idOf(KIND, name);
+    }
+}
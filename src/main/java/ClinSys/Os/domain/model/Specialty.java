@@ -0,0 +1,41 @@
+package ClinSys.Os.domain.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "reference-data")
+@Table(name = "specialties", indexes = {
+        @Index(name = "idx_specialties_name", columnList = "name", unique = true)
+})
+public class Specialty extends NamedReference {
+
+    private static final String KIND = "specialty";
+
+    private Specialty(String name) {
+        super(KIND, name);
+    }
+
+    /**
+     * @return An unsaved specialty with the given name; its id is the id of the stored specialty with that name, if any.
+     */
+    public static Specialty named(String name) {
+        return new Specialty(name);
+    }
+
+    public static UUID idOf(String name) {
+        return idOf(KIND, name);
+    }
+}
@@ -1,11 +1,98 @@
 package ClinSys.Os.domain.repository;
 
 import ClinSys.Os.domain.model.Appointment;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * On PostgreSQL, {@code appointments} is partitioned by month of {@code date_time} (migration 5): queries bounded by
+ * {@code dateTime}, like the streams below and the date filters of the listing, only read the matching partitions.
+ * Lookups by id probe the primary key index of each partition.
+ */
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
+public interface AppointmentRepository extends JpaRepository<Appointment, UUID>, JpaSpecificationExecutor<Appointment>,
+        AppointmentWriteRepository {
+
+    // Streamed rows bypass the second-level cache, so their references are loaded by the same query
+    String FETCH_REFERENCES = "join fetch a.doctor join fetch a.patient join fetch a.specialty";
+
+    /**
+     * Streams every appointment through a server-side cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("select a from Appointment a " + FETCH_REFERENCES + " order by a.dateTime, a.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            // Full scans would otherwise flush the second-level cache
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Appointment> streamAllByOrderByDateTimeAscIdAsc();
+
+    /**
+     * Streams appointments that still occupy a slot (not canceled) from the given date/time on.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("select a from Appointment a " + FETCH_REFERENCES + " where a.dateTime >= :from and a.status <> ClinSys.Os.domain.model.AppointmentStatus.CANCELED")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Appointment> streamActiveFrom(@Param("from") LocalDateTime from);
+
+    /**
+     * Streams every appointment, canceled ones included, from the given date/time on.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("select a from Appointment a " + FETCH_REFERENCES + " where a.dateTime >= :from")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Appointment> streamFrom(@Param("from") LocalDateTime from);
+
+    // Redeclared so calls resolve to AppointmentWriteRepository, which resolves the references before saving
+    @Override
+    <S extends Appointment> S save(S appointment);
+
+    @Override
+    <S extends Appointment> S saveAndFlush(S appointment);
+
+    @Override
+    <S extends Appointment> List<S> saveAll(Iterable<S> appointments);
+
+    @Override
+    <S extends Appointment> List<S> saveAllAndFlush(Iterable<S> appointments);
+
+    /**
+     * Lists every distinct doctor/specialty pair.
+     */
+    @Query("select distinct a.doctor.name as doctorName, a.specialty.name as specialty from Appointment a")
+    List<DoctorSpecialty> findDoctorSpecialties();
+
+    interface DoctorSpecialty {
+        String getDoctorName();
+
+        String getSpecialty();
+    }
 }
@@ -0,0 +1,67 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.Specialty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Query building blocks for appointment listings.
+ * Every predicate lines up with one of the composite indexes declared on {@link Appointment},
+ * so filtered keyset pages are served by an index range scan instead of a sort over the table.
+ */
+public final class AppointmentSpecifications {
+
+    /**
+     * Stable ordering used by keyset pagination: date/time first, id as tie-breaker.
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.asc("dateTime"), Sort.Order.asc("id"));
+
+    private AppointmentSpecifications() {
+    }
+
+    /**
+     * Matches the doctor's id, derived from the name, so the filter is a foreign-key comparison without a join.
+     */
+    public static Specification<Appointment> doctorNameEquals(String doctorName) {
+        return (root, query, cb) -> doctorName == null ? null : cb.equal(root.get("doctor").get("id"), Doctor.idOf(doctorName));
+    }
+
+    public static Specification<Appointment> specialtyEquals(String specialty) {
+        return (root, query, cb) -> specialty == null ? null : cb.equal(root.get("specialty").get("id"), Specialty.idOf(specialty));
+    }
+
+    public static Specification<Appointment> statusEquals(AppointmentStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Appointment> dateTimeFrom(LocalDateTime from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThanOrEqualTo(root.get("dateTime"), from);
+    }
+
+    public static Specification<Appointment> dateTimeBefore(LocalDateTime to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThan(root.get("dateTime"), to);
+    }
+
+    /**
+     * Restricts results to rows strictly after the given keyset position.
+     *
+     * @param dateTime The date/time of the last row already returned.
+     * @param id The id of the last row already returned.
+     * @return A specification matching {@code (dateTime, id) > (dateTime, id)}.
+     */
+    public static Specification<Appointment> after(LocalDateTime dateTime, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("dateTime"), dateTime),
+                cb.and(
+                        cb.equal(root.get("dateTime"), dateTime),
+                        cb.greaterThan(root.<UUID>get("id"), id)
+                )
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.Appointment;
+
+import java.util.List;
+
+/**
+ * Saves appointments after resolving their doctor, patient and specialty to stored rows,
+ * creating the ones that do not exist yet. Replaces the default {@code save} methods of {@link AppointmentRepository}.
+ */
+public interface AppointmentWriteRepository {
+
+    <S extends Appointment> S save(S appointment);
+
+    <S extends Appointment> S saveAndFlush(S appointment);
+
+    <S extends Appointment> List<S> saveAll(Iterable<S> appointments);
+
+    <S extends Appointment> List<S> saveAllAndFlush(Iterable<S> appointments);
+}
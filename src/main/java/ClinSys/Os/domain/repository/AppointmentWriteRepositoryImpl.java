@@ -0,0 +1,186 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.NamedReference;
+import ClinSys.Os.domain.model.Patient;
+import ClinSys.Os.domain.model.Specialty;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+class AppointmentWriteRepositoryImpl implements AppointmentWriteRepository {
+
+    private final EntityManager entityManager;
+    private final JpaEntityInformation<Appointment, ?> entityInformation;
+
+    AppointmentWriteRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.entityInformation = JpaEntityInformationSupport.getEntityInformation(Appointment.class, entityManager);
+    }
+
+    @Override
+    @Transactional
+    public <S extends Appointment> S save(S appointment) {
+        resolveReferences(List.of(appointment));
+        return persistOrMerge(appointment);
+    }
+
+    @Override
+    @Transactional
+    public <S extends Appointment> S saveAndFlush(S appointment) {
+        S saved = save(appointment);
+        entityManager.flush();
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public <S extends Appointment> List<S> saveAll(Iterable<S> appointments) {
+        List<S> pending = new ArrayList<>();
+        appointments.forEach(pending::add);
+        resolveReferences(pending);
+        List<S> saved = new ArrayList<>(pending.size());
+        pending.forEach(appointment -> saved.add(persistOrMerge(appointment)));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public <S extends Appointment> List<S> saveAllAndFlush(Iterable<S> appointments) {
+        List<S> saved = saveAll(appointments);
+        entityManager.flush();
+        return saved;
+    }
+
+    private <S extends Appointment> S persistOrMerge(S appointment) {
+        if (entityInformation.isNew(appointment)) {
+            entityManager.persist(appointment);
+            return appointment;
+        }
+        return entityManager.merge(appointment);
+    }
+
+    /**
+     * Swaps the references of the appointments for managed entities, with one batched lookup per kind.
+     */
+    private void resolveReferences(List<? extends Appointment> appointments) {
+        Map<UUID, Patient> patients = resolve(Patient.class, appointments, Appointment::getPatient);
+        Map<UUID, Doctor> doctors = resolve(Doctor.class, appointments, Appointment::getDoctor);
+        Map<UUID, Specialty> specialties = resolve(Specialty.class, appointments, Appointment::getSpecialty);
+        for (Appointment appointment : appointments) {
+            appointment.setPatient(managed(patients, appointment.getPatient()));
+            appointment.setDoctor(managed(doctors, appointment.getDoctor()));
+            appointment.setSpecialty(managed(specialties, appointment.getSpecialty()));
+        }
+    }
+
+    private <R extends NamedReference> Map<UUID, R> resolve(
+            Class<R> type, List<? extends Appointment> appointments, Function<Appointment, R> reference
+    ) {
+        // The first spelling of a name in the batch is the one stored
+        Map<UUID, R> wanted = new LinkedHashMap<>();
+        for (Appointment appointment : appointments) {
+            R value = reference.apply(appointment);
+            if (value != null) {
+                wanted.putIfAbsent(value.getId(), value);
+            }
+        }
+        Map<UUID, R> found = load(type, wanted.keySet());
+        List<R> missing = wanted.values().stream().filter(r -> !found.containsKey(r.getId())).toList();
+        if (!missing.isEmpty()) {
+            create(type, missing);
+            found.putAll(load(type, missing.stream().map(NamedReference::getId).toList()));
+        }
+        return found;
+    }
+
+    /**
+     * Loads by id from the persistence context and the second-level cache first, then in one query.
+     */
+    private <R extends NamedReference> Map<UUID, R> load(Class<R> type, Collection<UUID> ids) {
+        Map<UUID, R> found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        for (R reference : entityManager.unwrap(Session.class).byMultipleIds(type).multiLoad(List.copyOf(ids))) {
+            if (reference != null) {
+                found.put(reference.getId(), reference);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Inserts new references on the caller's connection, behind a savepoint: a name created concurrently by another
+     * writer (same id, so a duplicate key) only rolls back to the savepoint, not the appointment being saved.
+     * A transaction of their own would need a second connection while this one is held, which can exhaust the pool.
+     */
+    private void create(Class<? extends NamedReference> type, List<? extends NamedReference> references) {
+        String sql = "INSERT INTO " + type.getAnnotation(Table.class).name() + " (id, name) VALUES (?, ?)";
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (!insert(connection, sql, references)) {
+                for (NamedReference reference : references) {
+                    // Fails again for the ones created by another writer in the meantime
+                    insert(connection, sql, List.of(reference));
+                }
+            }
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    // Loaded within the transaction, they may have reached the second-level cache; the rows are gone
+                    var cache = entityManager.getEntityManagerFactory().getCache();
+                    references.forEach(reference -> cache.evict(type, reference.getId()));
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Whether every reference was inserted; on a constraint violation none is.
+     */
+    private static boolean insert(Connection connection, String sql, List<? extends NamedReference> references) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (NamedReference reference : references) {
+                statement.setObject(1, reference.getId());
+                statement.setString(2, reference.getName());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            // Integrity constraint violations are SQLSTATE class 23
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    private static <R extends NamedReference> R managed(Map<UUID, R> resolved, R reference) {
+        return reference == null ? null : resolved.get(reference.getId());
+    }
+}
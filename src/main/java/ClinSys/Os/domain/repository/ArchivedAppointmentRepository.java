@@ -0,0 +1,72 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.ArchivedAppointment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Archived rows are read back as a fallback by the services that look up past appointments, so archiving
+ * moves them out of the live table without hiding them from the API.
+ */
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, UUID> {
+
+    String ARCHIVABLE = "date_time >= :from AND date_time < :to AND status IN ('COMPLETED', 'CANCELED')";
+    String COLUMNS = "id, patient_id, doctor_id, specialty_id, date_time, status, version";
+    String FETCH_REFERENCES = "join fetch a.doctor join fetch a.patient join fetch a.specialty";
+
+    @Query("select a from ArchivedAppointment a " + FETCH_REFERENCES + " where a.id = :id")
+    Optional<ArchivedAppointment> findWithReferencesById(@Param("id") UUID id);
+
+    /**
+     * Archived appointments of one doctor in a date/time range, ordered like the live listings.
+     */
+    @Query("select a from ArchivedAppointment a " + FETCH_REFERENCES
+            + " where a.doctor.id = :doctorId and a.dateTime >= :from and a.dateTime < :to order by a.dateTime, a.id")
+    List<ArchivedAppointment> findByDoctor(
+            @Param("doctorId") UUID doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * @return Date/time of the oldest appointment that could be archived, or null if there is none.
+     */
+    @Query(value = "SELECT min(date_time) FROM appointments WHERE status IN ('COMPLETED', 'CANCELED')", nativeQuery = true)
+    LocalDateTime findOldestArchivable();
+
+    /**
+     * Moves the completed and canceled appointments of a date/time range into the archive in one statement (PostgreSQL).
+     * The range should cover whole partitions, so the delete only touches those.
+     *
+     * @return Number of appointments moved.
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM appointments WHERE " + ARCHIVABLE + " RETURNING " + COLUMNS + ")"
+            + " INSERT INTO appointments_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS + ", :archivedAt FROM moved",
+            nativeQuery = true)
+    int moveToArchive(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Portable first half of {@link #moveToArchive}: copies the appointments into the archive.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointments_archive (" + COLUMNS + ", archived_at)"
+            + " SELECT " + COLUMNS + ", :archivedAt FROM appointments WHERE " + ARCHIVABLE,
+            nativeQuery = true)
+    int copyToArchive(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Portable second half of {@link #moveToArchive}: deletes the appointments that were copied into the archive.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM appointments WHERE " + ARCHIVABLE
+            + " AND EXISTS (SELECT 1 FROM appointments_archive r WHERE r.id = appointments.id)",
+            nativeQuery = true)
+    int deleteArchived(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
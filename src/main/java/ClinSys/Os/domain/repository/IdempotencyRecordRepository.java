@@ -0,0 +1,47 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key; fails with a {@link org.springframework.dao.DataIntegrityViolationException} if it is already taken.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, created_at) VALUES (:id, :requestHash, :now)", nativeQuery = true)
+    void insertPending(@Param("id") String id, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now);
+
+    /**
+     * Claims a key whose record expired, or whose first request was abandoned before storing a response.
+     *
+     * @return 1 if the key was claimed, 0 if its record is still valid.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.requestHash = :requestHash, r.response = null, r.createdAt = :now"
+            + " where r.id = :id and (r.createdAt < :expiredBefore or (r.response is null and r.createdAt < :abandonedBefore))")
+    int takeOver(@Param("id") String id, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now,
+                 @Param("expiredBefore") LocalDateTime expiredBefore, @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.id = :id")
+    int complete(@Param("id") String id, @Param("response") String response);
+
+    /**
+     * Releases a key whose request failed, so it can be retried.
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.response is null")
+    int deletePending(@Param("id") String id);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
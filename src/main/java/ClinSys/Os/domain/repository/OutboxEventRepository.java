@@ -0,0 +1,43 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events that are due for delivery.
+     * Rows already locked by another relay are skipped ({@code FOR UPDATE SKIP LOCKED}), so several
+     * instances can drain the outbox concurrently. Must be called inside a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.publishedAt is null and e.nextAttemptAt <= :now order by e.id")
+    List<OutboxEvent> lockPending(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Reads events of one aggregate type after the {@code (createdAt, id)} position, delivered or not, in that order.
+     * Nothing is locked: meant for readers that follow the changes without consuming them.
+     */
+    @Query("select e from OutboxEvent e where e.aggregateType = :type"
+            + " and (e.createdAt > :createdAt or (e.createdAt = :createdAt and e.id > :id)) order by e.createdAt, e.id")
+    List<OutboxEvent> findAfter(@Param("type") String type, @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") long id, Limit limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,80 @@
+package ClinSys.Os.domain.repository;
+
+import ClinSys.Os.domain.model.Patient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Patient search. Patterns are lower-case and already escaped for {@code LIKE}; results are ranked
+ * prefix matches first, then by similarity, with name and id as tie-breakers so pages are stable.
+ */
+@Repository
+public interface PatientRepository extends JpaRepository<Patient, UUID> {
+
+    /**
+     * Names starting with the prefix, for databases without the PostgreSQL indexes (e.g. H2 in tests).
+     */
+    @Query(value = """
+            SELECT p.* FROM patients p
+            WHERE lower(p.name) LIKE :prefix
+            ORDER BY p.name, p.id
+            LIMIT :limit OFFSET :offset""", nativeQuery = true)
+    List<Patient> searchByPrefix(@Param("prefix") String prefix, @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Names starting with the prefix, in byte order of the lower-cased name. Filter and order are both read from
+     * {@code idx_patients_name_prefix} (which is in the C collation), so only the rows of the page are visited.
+     * PostgreSQL only.
+     */
+    @Query(value = """
+            SELECT p.* FROM patients p
+            WHERE lower(p.name) COLLATE "C" LIKE :prefix
+            ORDER BY lower(p.name) COLLATE "C", p.id
+            LIMIT :limit OFFSET :offset""", nativeQuery = true)
+    List<Patient> searchByPrefixIndexed(@Param("prefix") String prefix, @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Names containing the query, or a word close to it ({@code pg_trgm} word similarity), so typos still match.
+     * Both conditions are served by the trigram GIN index {@code idx_patients_name_trgm}, which is built on
+     * {@code name} itself: the substring test uses {@code ILIKE} on the column rather than {@code lower(name)}.
+     * PostgreSQL only.
+     */
+    @Query(value = """
+            SELECT p.* FROM patients p
+            WHERE :query <% p.name OR p.name ILIKE :pattern
+            ORDER BY p.name ILIKE :prefix DESC, word_similarity(:query, p.name) DESC, p.name, p.id
+            LIMIT :limit OFFSET :offset""", nativeQuery = true)
+    List<Patient> searchSimilar(
+            @Param("query") String query,
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix,
+            @Param("limit") int limit,
+            @Param("offset") int offset
+    );
+
+    /**
+     * Minimum word similarity for {@link #searchSimilar}; applies until the end of the current transaction.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Portable substring search without typo tolerance, for databases without {@code pg_trgm} (e.g. H2 in tests).
+     */
+    @Query(value = """
+            SELECT p.* FROM patients p
+            WHERE lower(p.name) LIKE :pattern
+            ORDER BY CASE WHEN lower(p.name) LIKE :prefix THEN 0 ELSE 1 END, p.name, p.id
+            LIMIT :limit OFFSET :offset""", nativeQuery = true)
+    List<Patient> searchContaining(
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix,
+            @Param("limit") int limit,
+            @Param("offset") int offset
+    );
+}
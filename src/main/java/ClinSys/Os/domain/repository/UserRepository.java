@@ -1,13 +1,27 @@
 package ClinSys.Os.domain.repository;
 
 import ClinSys.Os.domain.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+    /**
+     * Runs on every login and every token that is not in the JWT cache, so the result is kept in the
+     * query cache. Any write to {@code users} invalidates it.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "users-by-username")
+    })
     Optional<User> findByUsername(String username);
 }
@@ -0,0 +1,211 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import ClinSys.Os.service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder that runs every hash on a small dedicated pool.
+ * BCrypt is deliberately CPU-bound, so a burst of logins would otherwise occupy every core; the pool
+ * caps hashing at a fixed number of threads and its bounded queue rejects the overflow with
+ * {@link TooManyRequestsException} (HTTP 429) instead of letting requests pile up.
+ * The work factor can differ per role, and per user ({@link User#getPasswordStrength()}) on top of that;
+ * {@link #needsRehash} tells when a stored hash no longer matches it.
+ */
+@Slf4j
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final int defaultStrength;
+    private final Map<Role, Integer> roleStrengths;
+    private final ConcurrentMap<Integer, BCryptPasswordEncoder> encoders = new ConcurrentHashMap<>();
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    /**
+     * @param threads Hashing threads; 0 uses half of the available processors.
+     * @param queueCapacity Hashes that may wait for a thread before new ones are rejected.
+     * @param timeout Maximum time a request waits for its hash, queueing included.
+     * @param strength Default BCrypt work factor (log2 rounds).
+     * @param roleStrengths Comma-separated {@code ROLE:strength} overrides, e.g. {@code ADMIN:12}.
+     */
+    public BoundedPasswordEncoder(
+            @Value("${clinsys.security.password-hashing.threads:0}") int threads,
+            @Value("${clinsys.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${clinsys.security.password-hashing.timeout:10s}") Duration timeout,
+            @Value("${clinsys.security.bcrypt.strength:10}") int strength,
+            @Value("${clinsys.security.bcrypt.role-strengths:}") String roleStrengths,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.defaultStrength = strength;
+        this.roleStrengths = parseRoleStrengths(roleStrengths);
+        this.encodeTimer = Timer.builder("clinsys.password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "encode")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("clinsys.password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "matches")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("clinsys.password.hash.rejected")
+                .description("Hash requests rejected because the hashing queue was full or timed out")
+                .register(meterRegistry);
+        Gauge.builder("clinsys.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("clinsys.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+        log.info("Password hashing pool: {} threads, queue capacity {}, default BCrypt strength {}", poolSize, queueCapacity, strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encode(rawPassword, defaultStrength);
+    }
+
+    /**
+     * Hashes a password with the work factor configured for the given role.
+     */
+    public String encode(CharSequence rawPassword, Role role) {
+        return encode(rawPassword, strengthFor(role));
+    }
+
+    /**
+     * Hashes a password with the work factor of the user, or of their role when the user has none.
+     */
+    public String encode(CharSequence rawPassword, User user) {
+        return encode(rawPassword, strengthFor(user));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        // Any BCrypt encoder verifies hashes of any strength: the cost is read from the hash itself
+        return run(() -> encoder(defaultStrength).matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * @return true if the hash was computed with a work factor other than the one configured for the role.
+     */
+    public boolean needsRehash(String encodedPassword, Role role) {
+        return needsRehash(encodedPassword, strengthFor(role));
+    }
+
+    /**
+     * @return true if the hash was computed with a work factor other than the user's.
+     */
+    public boolean needsRehash(String encodedPassword, User user) {
+        return needsRehash(encodedPassword, strengthFor(user));
+    }
+
+    public int strengthFor(Role role) {
+        return role == null ? defaultStrength : roleStrengths.getOrDefault(role, defaultStrength);
+    }
+
+    public int strengthFor(User user) {
+        return user.getPasswordStrength() != null ? user.getPasswordStrength() : strengthFor(user.getRole());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private String encode(CharSequence rawPassword, int strength) {
+        return run(() -> encoder(strength).encode(rawPassword), encodeTimer);
+    }
+
+    private static boolean needsRehash(String encodedPassword, int strength) {
+        Matcher matcher = encodedPassword == null ? null : BCRYPT_COST.matcher(encodedPassword);
+        return matcher == null || !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private BCryptPasswordEncoder encoder(int strength) {
+        return encoders.computeIfAbsent(strength, BCryptPasswordEncoder::new);
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many authentication requests, please try again shortly");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new TooManyRequestsException("Too many authentication requests, please try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Map<Role, Integer> parseRoleStrengths(String value) {
+        Map<Role, Integer> strengths = new EnumMap<>(Role.class);
+        for (String entry : value.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("clinsys.security.bcrypt.role-strengths entries must be in the form ROLE:strength");
+                }
+                strengths.put(Role.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        return strengths;
+    }
+}
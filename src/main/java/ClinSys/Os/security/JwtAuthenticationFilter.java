@@ -1,25 +1,53 @@
 package ClinSys.Os.security;
 
+import ClinSys.Os.domain.model.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtTokenCache tokenCache;
+    private final boolean principalFromClaims; // Trust the role claim instead of loading the user
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            JwtTokenCache tokenCache,
+            boolean principalFromClaims,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.principalFromClaims = principalFromClaims;
+        // Time spent authenticating the request (the rest of the chain is excluded), by outcome
+        this.cachedTimer = authenticationTimer(meterRegistry, "cached");
+        this.verifiedTimer = authenticationTimer(meterRegistry, "verified");
+        this.rejectedTimer = authenticationTimer(meterRegistry, "rejected");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -28,17 +56,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
         if (authHeader == null ||!authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            final long start = System.nanoTime();
+            final String jwt = authHeader.substring(7);
+            JwtTokenCache.Entry entry = tokenCache.get(jwt);
+            Timer timer = cachedTimer;
+            if (entry == null) {
+                entry = verify(jwt);
+                timer = entry != null ? verifiedTimer : rejectedTimer;
+            }
+            if (entry != null) {
+                UserDetails userDetails = entry.principal();
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -49,7 +81,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 );
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Verifies the token with a single parse, resolves its principal and caches both.
+     *
+     * @return The cache entry, or null if the token or its user is not valid.
+     */
+    private JwtTokenCache.Entry verify(String jwt) {
+        final Claims claims;
+        try {
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        final String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+        UserDetails userDetails = principalFromClaims ? principalFromRoleClaim(claims) : loadUser(username);
+        if (userDetails == null || !username.equals(userDetails.getUsername())) {
+            return null;
+        }
+        return tokenCache.put(jwt, claims, userDetails);
+    }
+
+    private UserDetails loadUser(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private UserDetails principalFromRoleClaim(Claims claims) {
+        final Role role;
+        try {
+            role = Role.valueOf(claims.get("role", String.class));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .roles(role.name())
+                .build();
+    }
+
+    private static Timer authenticationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("clinsys.jwt.filter")
+                .description("Time spent authenticating a bearer token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
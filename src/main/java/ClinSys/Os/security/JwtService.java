@@ -1,28 +1,80 @@
 package ClinSys.Os.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * Signing keys are decoded once and kept in an immutable key ring that is swapped atomically on
+ * rotation. Tokens carry the id of the key that signed them in the {@code kid} header, so tokens
+ * signed with a previous key stay valid until that key is retired.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final long jwtExpiration;
+    private final AtomicReference<KeyRing> keyRing;
+    private final JwtParser parser;
+    private final List<Consumer<String>> retirementListeners = new CopyOnWriteArrayList<>();
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    /**
+     * @param secretKey Base64 secret of the active signing key.
+     * @param keyId Id of the active signing key, written to the {@code kid} header.
+     * @param previousKeys Comma-separated {@code kid:secret} pairs still accepted for verification.
+     * @param jwtExpiration Token lifetime in milliseconds.
+     */
+    public JwtService(
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.key-id:primary}") String keyId,
+            @Value("${jwt.previous-keys:}") String previousKeys,
+            @Value("${jwt.expiration}") long jwtExpiration
+    ) {
+        this.jwtExpiration = jwtExpiration;
+        Map<String, SecretKey> verificationKeys = new LinkedHashMap<>();
+        for (String entry : previousKeys.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("jwt.previous-keys entries must be in the form kid:secret");
+                }
+                verificationKeys.put(parts[0], decodeKey(parts[1]));
+            }
+        }
+        SecretKey activeKey = decodeKey(secretKey);
+        verificationKeys.put(keyId, activeKey);
+        this.keyRing = new AtomicReference<>(new KeyRing(keyId, activeKey, Map.copyOf(verificationKeys)));
+        // Built once: the locator reads the current key ring, so rotations never rebuild the parser
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.get().verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -33,43 +85,109 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    @Timed(value = "clinsys.jwt", extraTags = {"operation", "sign"})
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    @Timed(value = "clinsys.jwt", extraTags = {"operation", "sign"})
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        KeyRing ring = keyRing.get();
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .header().keyId(ring.activeKeyId()).and()
+                .claims(extraClaims)
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpiration))
+                .signWith(ring.activeKey(), Jwts.SIG.HS256)
                 .compact();
     }
 
+    @Timed(value = "clinsys.jwt", extraTags = {"operation", "verify"})
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Parses and verifies a token once and returns all of its claims.
+     * Tampered or expired tokens are rejected with a {@link io.jsonwebtoken.JwtException}.
+     */
+    @Timed(value = "clinsys.jwt", extraTags = {"operation", "verify"})
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * Makes a new key the active signing key. The previous keys remain valid for verification.
+     *
+     * @param keyId Id of the new key.
+     * @param secretKey Base64 secret of the new key.
+     */
+    public void rotateKey(String keyId, String secretKey) {
+        SecretKey key = decodeKey(secretKey);
+        keyRing.updateAndGet(ring -> {
+            Map<String, SecretKey> keys = new LinkedHashMap<>(ring.verificationKeys());
+            keys.put(keyId, key);
+            return new KeyRing(keyId, key, Map.copyOf(keys));
+        });
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Stops accepting tokens signed with the given key.
+     * Listeners registered with {@link #addRetirementListener} are called once the key is gone, so tokens
+     * verified earlier and cached elsewhere ({@link JwtTokenCache}) are dropped as well.
+     *
+     * @param keyId Id of the key to retire.
+     * @throws IllegalArgumentException if the key is the active signing key.
+     */
+    public void retireKey(String keyId) {
+        keyRing.updateAndGet(ring -> {
+            if (ring.activeKeyId().equals(keyId)) {
+                throw new IllegalArgumentException("Cannot retire the active signing key");
+            }
+            Map<String, SecretKey> keys = new LinkedHashMap<>(ring.verificationKeys());
+            keys.remove(keyId);
+            return new KeyRing(ring.activeKeyId(), ring.activeKey(), Map.copyOf(keys));
+        });
+        retirementListeners.forEach(listener -> listener.accept(keyId));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Registers a callback receiving the id of each key retired from now on.
+     */
+    public void addRetirementListener(Consumer<String> listener) {
+        retirementListeners.add(listener);
+    }
+
+    public String getActiveKeyId() {
+        return keyRing.get().activeKeyId();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Key getSignInKey() {
+    private static SecretKey decodeKey(String secretKey) {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    private record KeyRing(String activeKeyId, SecretKey activeKey, Map<String, SecretKey> verificationKeys) {
+
+        /**
+         * Tokens issued before key ids were introduced have no {@code kid} and use the active key.
+         */
+        SecretKey verificationKey(String keyId) {
+            if (keyId == null) {
+                return activeKey;
+            }
+            SecretKey key = verificationKeys.get(keyId);
+            if (key == null) {
+                throw new SignatureException("Unknown signing key id: " + keyId);
+            }
+            return key;
+        }
+    }
 }
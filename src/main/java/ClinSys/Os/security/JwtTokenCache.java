@@ -0,0 +1,92 @@
+package ClinSys.Os.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Bounded cache of verified tokens and the principals they resolved to.
+ * Entries are keyed by the SHA-256 digest of the token (raw tokens are never kept) and expire
+ * at the token expiration or after {@code jwt.cache.ttl}, whichever comes first.
+ * Retiring a signing key empties the cache: cached tokens skip signature verification, so one signed
+ * with the retired key would otherwise keep working until its entry expires.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final Cache<String, Entry> cache;
+
+    @Autowired
+    public JwtTokenCache(
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.ttl:5m}") Duration ttl,
+            JwtService jwtService
+    ) {
+        this(maxSize, ttl);
+        // Keys are retired rarely, and the tokens still in use are verified again on their next request
+        jwtService.addRetirementListener(keyId -> invalidateAll());
+    }
+
+    public JwtTokenCache(long maxSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long untilTokenExpires = entry.claims().getExpiration().getTime() - System.currentTimeMillis();
+                        return Duration.ofMillis(Math.max(0, Math.min(untilTokenExpires, ttl.toMillis()))).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the cached entry for a token, or null if it was never verified or has expired.
+     */
+    public Entry get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public Entry put(String token, Claims claims, UserDetails principal) {
+        var entry = new Entry(claims, principal);
+        cache.put(digest(token), entry);
+        return entry;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Entry(Claims claims, UserDetails principal) {
+    }
+}
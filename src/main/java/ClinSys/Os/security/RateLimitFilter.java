@@ -0,0 +1,221 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits requests per client with token buckets, so one misbehaving integration is answered with 429 instead
+ * of taking capacity from everyone else.
+ * Runs right after {@link JwtAuthenticationFilter}: authenticated requests draw from a bucket per user with the
+ * limit of their role, anonymous requests from a bucket per client IP, and {@code /api/auth/**} (login,
+ * registration) from a much smaller bucket per IP against password guessing.
+ * Buckets are lock-free ({@link TokenBucket}) and kept in a bounded cache that drops them once idle long enough
+ * to be full again, so a rejected request costs a map lookup and a compare-and-set.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LOGIN_PATH = "/api/auth/";
+    // Health checks and scraping come from a few monitoring addresses at a fixed rate
+    static final Set<String> EXEMPT_PATHS = Set.of("/actuator/health", "/actuator/health/liveness", "/actuator/health/readiness", "/actuator/prometheus");
+
+    private final boolean enabled;
+    private final Map<Role, Limit> roleLimits;
+    private final Limit anonymousLimit;
+    private final Limit loginLimit;
+    private final Cache<String, TokenBucket> buckets;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+
+    /**
+     * Limits are in requests per minute, which is also how many may arrive at once; 0 disables a limit.
+     *
+     * @param enabled Whether requests are limited at all.
+     * @param roleLimits Comma-separated {@code ROLE:requests} limits per user, e.g. {@code ADMIN:1200,DOCTOR:600}.
+     * @param anonymous Limit per IP for unauthenticated requests, and per user for roles without a limit.
+     * @param login Limit per IP for {@code /api/auth/**}.
+     * @param maxBuckets Buckets kept in memory; the least recently used are dropped beyond that.
+     * @param idleTimeout Time after which an unused bucket is dropped (at least a minute, when it is full again).
+     */
+    public RateLimitFilter(
+            boolean enabled,
+            String roleLimits,
+            int anonymous,
+            int login,
+            long maxBuckets,
+            Duration idleTimeout,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this(enabled, roleLimits, anonymous, login, maxBuckets, idleTimeout, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(
+            boolean enabled,
+            String roleLimits,
+            int anonymous,
+            int login,
+            long maxBuckets,
+            Duration idleTimeout,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            LongSupplier clock
+    ) {
+        this.enabled = enabled;
+        this.roleLimits = new EnumMap<>(Role.class);
+        parseRoleLimits(roleLimits).forEach((role, perMinute) ->
+                this.roleLimits.put(role, Limit.of(role.name(), perMinute, meterRegistry)));
+        this.anonymousLimit = Limit.of("anonymous", anonymous, meterRegistry);
+        this.loginLimit = Limit.of("login", login, meterRegistry);
+        Duration minimumIdle = Duration.ofMinutes(1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                // A bucket left alone for a minute is full again: dropping it loses nothing
+                .expireAfterAccess(idleTimeout.compareTo(minimumIdle) < 0 ? minimumIdle : idleTimeout)
+                .build();
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        Gauge.builder("clinsys.rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets kept in memory")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Rate limits per minute: {}, anonymous {}, login {}", this.roleLimits.values().stream()
+                    .map(l -> l.name() + "=" + l.perMinute()).toList(), anonymous, login);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || EXEMPT_PATHS.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Limit limit;
+        String key;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (path(request).startsWith(LOGIN_PATH)) {
+            limit = loginLimit;
+            key = request.getRemoteAddr();
+        } else if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            limit = roleLimit(auth);
+            key = "user:" + auth.getName();
+        } else {
+            limit = anonymousLimit;
+            key = request.getRemoteAddr();
+        }
+        if (limit.perMinute() <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(limit.name() + ":" + key, k -> new TokenBucket(limit.perMinute(), limit.refillNanos(), now));
+        long wait = bucket.tryConsume(now);
+        if (wait > 0) {
+            limit.rejected().increment();
+            reject(response, wait);
+            return;
+        }
+        limit.allowed().increment();
+        filterChain.doFilter(request, response);
+    }
+
+    private Limit roleLimit(Authentication auth) {
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            for (Map.Entry<Role, Limit> entry : roleLimits.entrySet()) {
+                if (("ROLE_" + entry.getKey().name()).equals(authority.getAuthority())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return anonymousLimit;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        // Same body as GlobalExceptionHandler, which never sees requests stopped by a filter
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", "Rate limit exceeded, please retry after " + seconds + " seconds");
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Map<Role, Integer> parseRoleLimits(String value) {
+        Map<Role, Integer> limits = new EnumMap<>(Role.class);
+        for (String entry : value.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("clinsys.rate-limit.role-limits entries must be in the form ROLE:requests");
+                }
+                limits.put(Role.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * @param name Tag of the metrics and prefix of the bucket keys.
+     * @param perMinute Requests per minute, and bucket capacity.
+     * @param refillNanos Time to regain one request.
+     */
+    private record Limit(String name, int perMinute, long refillNanos, Counter allowed, Counter rejected) {
+
+        static Limit of(String name, int perMinute, MeterRegistry meterRegistry) {
+            return new Limit(name, perMinute, perMinute > 0 ? TimeUnit.MINUTES.toNanos(1) / perMinute : 0,
+                    counter(meterRegistry, name, "allowed"), counter(meterRegistry, name, "rejected"));
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+            return Counter.builder("clinsys.rate-limit.requests")
+                    .description("Requests checked against a rate limit")
+                    .tag("limit", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
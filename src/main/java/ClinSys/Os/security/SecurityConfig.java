@@ -1,9 +1,16 @@
 package ClinSys.Os.security;
 
 import ClinSys.Os.domain.repository.UserRepository;
+import ClinSys.Os.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -15,14 +22,15 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -33,6 +41,32 @@ public class SecurityConfig {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
+    private final JwtTokenCache jwtTokenCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    @Value("${jwt.principal-from-claims:false}")
+    private boolean principalFromClaims;
+
+    @Value("${clinsys.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${clinsys.rate-limit.role-limits:ADMIN:1200,RECEPTIONIST:600,DOCTOR:600}")
+    private String rateLimitRoleLimits;
+
+    @Value("${clinsys.rate-limit.anonymous:120}")
+    private int rateLimitAnonymous;
+
+    @Value("${clinsys.rate-limit.login:10}")
+    private int rateLimitLogin;
+
+    @Value("${clinsys.rate-limit.max-buckets:100000}")
+    private long rateLimitMaxBuckets;
+
+    @Value("${clinsys.rate-limit.idle-timeout:5m}")
+    private Duration rateLimitIdleTimeout;
 
     @Bean
     public UserDetailsService userDetailsService() {
@@ -44,7 +78,7 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -53,30 +87,51 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(req -> req
+                        // Async dispatches resume a request that was already authorized (e.g. streamed exports)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        // Scrapers do not authenticate, so only the private management port serves them anonymously
+                        .requestMatchers(onManagementPort("/actuator/prometheus")).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/auth/**", "/v3/api-docs", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter(userDetailsService(), jwtService), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter(userDetailsService(), jwtService), UsernamePasswordAuthenticationFilter.class)
+                // Needs the authenticated user to pick the bucket
+                .addFilterAfter(rateLimitFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Matches requests to a path received on {@code management.server.port}, when it differs from the server port.
+     */
+    private RequestMatcher onManagementPort(String pattern) {
+        RequestMatcher path = new AntPathRequestMatcher(pattern);
+        return request -> {
+            // Only set once the management server has started on a port of its own
+            Integer port = environment.getProperty("local.management.port", Integer.class);
+            return port != null && port == request.getLocalPort() && path.matches(request);
+        };
+    }
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService uds, JwtService jwtService) {
-        return new JwtAuthenticationFilter(jwtService, uds);
+        return new JwtAuthenticationFilter(jwtService, uds, jwtTokenCache, principalFromClaims, meterRegistry);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(rateLimitEnabled, rateLimitRoleLimits, rateLimitAnonymous, rateLimitLogin,
+                rateLimitMaxBuckets, rateLimitIdleTimeout, objectMapper, meterRegistry);
     }
 
     @Bean
@@ -84,7 +139,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:3000", "http://localhost:5173"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", IdempotencyService.HEADER));
+        configuration.setExposedHeaders(List.of(HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER, IdempotencyService.REPLAYED_HEADER));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
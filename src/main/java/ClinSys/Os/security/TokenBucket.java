@@ -0,0 +1,51 @@
+package ClinSys.Os.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens, refilled with one token every {@code refillNanos}.
+ * The whole state is a single timestamp, the instant at which the bucket will be full again, so taking a token
+ * is one compare-and-set (the generic cell rate algorithm): a bucket that is full again at {@code fullAt} holds
+ * {@code capacity - (fullAt - now) / refillNanos} tokens at {@code now}.
+ */
+final class TokenBucket {
+
+    private final long refillNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(long capacity, long refillNanos, long now) {
+        this.refillNanos = refillNanos;
+        this.capacityNanos = capacity * refillNanos;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param now Current {@link System#nanoTime()}.
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            // An idle bucket does not fill beyond its capacity
+            long next = Math.max(current, now) + refillNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return Tokens available at {@code now}.
+     */
+    long available(long now) {
+        long debt = Math.max(0, fullAt.get() - now);
+        return (capacityNanos - debt) / refillNanos;
+    }
+}
@@ -0,0 +1,71 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.ArchivedAppointment;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.ArchivedAppointmentRepository;
+import ClinSys.Os.service.agenda.DoctorAgendaProjection;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static ClinSys.Os.domain.repository.AppointmentSpecifications.*;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "clinsys.service", description = "Time spent in service methods")
+/**
+ * Service class for doctors' daily agendas.
+ * Recent and future days are served from {@link DoctorAgendaProjection} without touching the database;
+ * days before the current month also include the appointments moved to the archive.
+ */
+public class AgendaService {
+
+    private final DoctorAgendaProjection projection;
+    private final AppointmentRepository repository;
+    private final ArchivedAppointmentRepository archive;
+
+    /**
+     * Retrieves the appointments of a doctor on one day, canceled ones included, ordered by time.
+     *
+     * @param doctorName The doctor.
+     * @param day The day.
+     * @return The appointments of that day.
+     * @throws InvalidRequestException if the doctor is missing.
+     */
+    public List<AppointmentResponse> findAgenda(String doctorName, LocalDate day) {
+        if (doctorName == null || doctorName.isBlank()) {
+            throw new InvalidRequestException("doctorName is required");
+        }
+        if (projection.covers(day)) {
+            return projection.agenda(doctorName, day);
+        }
+        // Days older than the projection window: one range scan on (doctorName, dateTime, id)
+        Specification<Appointment> spec = Specification.where(doctorNameEquals(doctorName))
+                .and(dateTimeFrom(day.atStartOfDay()))
+                .and(dateTimeBefore(day.plusDays(1).atStartOfDay()));
+        List<Appointment> live = repository.findBy(spec, q -> q.sortBy(KEYSET_ORDER).all());
+        if (!day.isBefore(YearMonth.now().atDay(1))) {
+            // Only months before the current one are ever archived
+            return live.stream().map(AppointmentService::mapToResponse).toList();
+        }
+        List<Appointment> archived = archive.findByDoctor(Doctor.idOf(doctorName), day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                .stream()
+                .map(ArchivedAppointment::toAppointment)
+                .toList();
+        return Stream.concat(live.stream(), archived.stream())
+                .sorted(Comparator.comparing(Appointment::getDateTime).thenComparing(Appointment::getId))
+                .map(AppointmentService::mapToResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,95 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.config.ResponseEncodingConfig;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+/**
+ * Service class for bulk exports of appointments.
+ * Rows are read through a database cursor and written one by one, and the persistence context is
+ * cleared every {@value #FLUSH_INTERVAL} rows, so memory use does not depend on the size of the table.
+ */
+public class AppointmentExportService {
+
+    public static final int FLUSH_INTERVAL = 500;
+
+    public enum Format {
+        /** Newline-delimited JSON, one {@code AppointmentResponse} per line. */
+        NDJSON,
+        /** CBOR sequence (RFC 8742): one CBOR item per appointment, back to back. */
+        CBOR_SEQUENCE,
+        /** A stream of Smile values; property names and short repeated values are written once for the whole stream. */
+        SMILE
+    }
+
+    private final AppointmentRepository repository;
+    private final EntityManager entityManager;
+    private final Map<Format, ObjectMapper> mappers = new EnumMap<>(Format.class);
+
+    public AppointmentExportService(AppointmentRepository repository, ObjectMapper objectMapper, EntityManager entityManager) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        mappers.put(Format.NDJSON, objectMapper);
+        mappers.put(Format.CBOR_SEQUENCE, objectMapper.copyWith(new CBORFactory()));
+        mappers.put(Format.SMILE, objectMapper.copyWith(ResponseEncodingConfig.smileFactory()));
+    }
+
+    /**
+     * Writes every appointment in the given format.
+     * The target stream is flushed periodically but not closed.
+     *
+     * @param out The stream to write to.
+     * @param format The representation of the appointments.
+     * @param fields Properties written for each appointment, see {@link AppointmentFields#parse}.
+     * @return The number of exported appointments.
+     * @throws IOException if writing to the stream fails (e.g. the client disconnected).
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, Format format, FilterProvider fields) throws IOException {
+        ObjectMapper mapper = mappers.get(format);
+        // Flushed every FLUSH_INTERVAL rows rather than after each one
+        ObjectWriter writer = mapper.writer(fields).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<Appointment> rows = repository.streamAllByOrderByDateTimeAscIdAsc();
+             JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.NDJSON) {
+                // Lines are separated by the newline alone
+                generator.setRootValueSeparator(null);
+            }
+            Iterator<Appointment> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Appointment appointment = iterator.next();
+                writer.writeValue(generator, AppointmentService.mapToResponse(appointment));
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                    // Detaching each appointment would leave its patient, doctor and specialty managed:
+                    // clearing keeps the persistence context bounded by the interval instead of the distinct references
+                    entityManager.clear();
+                }
+            }
+            generator.flush();
+        }
+        return count;
+    }
+}
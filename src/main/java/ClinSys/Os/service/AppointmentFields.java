@@ -0,0 +1,66 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets of {@link AppointmentResponse}: {@code ?fields=id,dateTime,status} keeps only those properties
+ * of every appointment in the response, wherever it is nested (pages, lists, single appointments).
+ * The application's ObjectMapper applies {@link #FILTER} to {@code AppointmentResponse} through {@link FilterMixIn}
+ * and serializes every property unless a request selects fields; other mappers are not affected.
+ */
+public final class AppointmentFields {
+
+    public static final String PARAMETER = "fields";
+    public static final String FILTER = "appointmentFields";
+
+    /** Filters of responses that do not select fields. */
+    public static final FilterProvider ALL = new SimpleFilterProvider()
+            .addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    static final Set<String> NAMES = Arrays.stream(AppointmentResponse.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    private AppointmentFields() {
+    }
+
+    /**
+     * @param fields Comma-separated property names, or null/blank for all of them.
+     * @return The filters that keep only those properties.
+     * @throws InvalidRequestException if a name is not a property of {@code AppointmentResponse}.
+     */
+    public static FilterProvider parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!NAMES.contains(trimmed)) {
+                throw new InvalidRequestException(PARAMETER + " must be a comma-separated list of " + String.join(", ", NAMES));
+            }
+            selected.add(trimmed);
+        }
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+    }
+
+    @JsonFilter(FILTER)
+    public interface FilterMixIn {
+    }
+}
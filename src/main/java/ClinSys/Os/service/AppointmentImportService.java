@@ -0,0 +1,282 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.api.dto.BatchCreateResponse;
+import ClinSys.Os.api.dto.BatchItemResult;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.service.event.AppointmentChangedEvent;
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import ClinSys.Os.service.exception.BusinessException;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+@Service
+/**
+ * Service class for bulk creation of appointments (JSON batches and CSV imports).
+ * Rows are validated individually; valid rows are inserted in chunks, each chunk in a single
+ * transaction so Hibernate can send the inserts as JDBC batches.
+ */
+public class AppointmentImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("patientName", "doctorName", "specialty", "dateTime");
+
+    private final AppointmentRepository repository;
+    private final SchedulingEngine scheduling;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final AppointmentOutbox outbox;
+    private final int maxRows;
+    private final int chunkSize;
+
+    public AppointmentImportService(
+            AppointmentRepository repository,
+            SchedulingEngine scheduling,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher events,
+            AppointmentOutbox outbox,
+            @Value("${clinsys.import.max-rows:10000}") int maxRows,
+            @Value("${clinsys.import.chunk-size:500}") int chunkSize
+    ) {
+        this.repository = repository;
+        this.scheduling = scheduling;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.outbox = outbox;
+        this.maxRows = maxRows;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates every valid appointment of the batch and reports the outcome of each row.
+     *
+     * @param requests The appointments to create.
+     * @return Per-row results, in request order.
+     * @throws InvalidRequestException if the batch is empty or exceeds the configured maximum.
+     */
+    public BatchCreateResponse createAll(List<AppointmentRequest> requests) {
+        List<Row> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = new ArrayList<>();
+            // A null element of the JSON array; the validator cannot check it
+            if (requests.get(i) == null) {
+                errors.add("Appointment is required");
+            }
+            rows.add(new Row(i, requests.get(i), errors));
+        }
+        return process(rows);
+    }
+
+    /**
+     * Creates appointments from a CSV file with the header {@code patientName,doctorName,specialty,dateTime}
+     * (columns in any order, dateTime in ISO-8601, e.g. {@code 2026-11-02T09:30}).
+     *
+     * @param csv The CSV content (UTF-8).
+     * @return Per-row results, in file order.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidRequestException if the header is missing required columns.
+     */
+    public BatchCreateResponse importCsv(InputStream csv) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new InvalidRequestException("CSV file is empty");
+        }
+        List<String> header = parseCsvLine(headerLine.replace("﻿", "")).stream().map(String::trim).toList();
+        int[] columns = CSV_COLUMNS.stream().mapToInt(header::indexOf).toArray();
+        if (Arrays.stream(columns).anyMatch(c -> c < 0)) {
+            throw new InvalidRequestException("CSV header must contain " + String.join(",", CSV_COLUMNS));
+        }
+
+        List<Row> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (rows.size() >= maxRows) {
+                throw new InvalidRequestException("A batch may contain at most " + maxRows + " rows");
+            }
+            List<String> values = parseCsvLine(line);
+            List<String> errors = new ArrayList<>();
+            var request = AppointmentRequest.builder()
+                    .patientName(value(values, columns[0]))
+                    .doctorName(value(values, columns[1]))
+                    .specialty(value(values, columns[2]))
+                    .build();
+            String dateTime = value(values, columns[3]);
+            if (dateTime != null) {
+                try {
+                    request.setDateTime(LocalDateTime.parse(dateTime));
+                } catch (DateTimeParseException e) {
+                    errors.add("dateTime: Invalid date/time format");
+                }
+            }
+            rows.add(new Row(rows.size(), request, errors));
+        }
+        return process(rows);
+    }
+
+    private BatchCreateResponse process(List<Row> rows) {
+        if (rows.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one appointment");
+        }
+        if (rows.size() > maxRows) {
+            throw new InvalidRequestException("A batch may contain at most " + maxRows + " rows");
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(rows.size());
+        List<Row> pending = new ArrayList<>();
+        for (Row row : rows) {
+            // A column that failed to parse is already reported; skip the "required" violation it causes
+            boolean unparsedDateTime = !row.errors().isEmpty();
+            if (row.request() != null) {
+                validator.validate(row.request()).stream()
+                        .filter(v -> !(unparsedDateTime && v.getPropertyPath().toString().equals("dateTime")))
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .forEach(row.errors()::add);
+            }
+            if (!row.errors().isEmpty()) {
+                results.add(rejected(row.index(), row.errors()));
+                continue;
+            }
+            pending.add(row);
+            if (pending.size() == chunkSize) {
+                results.addAll(insertChunk(pending));
+                pending = new ArrayList<>();
+            }
+        }
+        if (!pending.isEmpty()) {
+            results.addAll(insertChunk(pending));
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        int created = (int) results.stream().filter(r -> r.getStatus() == BatchItemResult.Status.CREATED).count();
+        return BatchCreateResponse.builder()
+                .created(created)
+                .rejected(results.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private List<BatchItemResult> insertChunk(List<Row> chunk) {
+        List<Appointment> candidates = chunk.stream()
+                .map(row -> Appointment.builder()
+                        .patientName(row.request().getPatientName())
+                        .doctorName(row.request().getDoctorName())
+                        .specialtyName(row.request().getSpecialty())
+                        .dateTime(row.request().getDateTime())
+                        .status(AppointmentStatus.SCHEDULED)
+                        .build())
+                .toList();
+
+        Set<Appointment> conflicts;
+        String failure = null;
+        try {
+            conflicts = scheduling.bookAll(candidates, accepted -> transactionTemplate.executeWithoutResult(status -> {
+                repository.saveAll(accepted);
+                // Recorded in the same transaction; the change feed is notified after the commit
+                List<AppointmentResponse> created = accepted.stream().map(AppointmentService::mapToResponse).toList();
+                outbox.appendAll(ChangeType.CREATED, created);
+                created.forEach(a -> events.publishEvent(new AppointmentChangedEvent(ChangeType.CREATED, a)));
+            }));
+        } catch (RuntimeException e) {
+            // The whole chunk was rolled back
+            conflicts = Set.of();
+            failure = e instanceof BusinessException ? e.getMessage() : "Could not save appointment";
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Appointment candidate = candidates.get(i);
+            int index = chunk.get(i).index();
+            if (failure != null) {
+                results.add(rejected(index, List.of(failure)));
+            } else if (conflicts.contains(candidate)) {
+                results.add(rejected(index, List.of(SchedulingEngine.OVERLAP_MESSAGE)));
+            } else {
+                results.add(BatchItemResult.builder()
+                        .index(index)
+                        .status(BatchItemResult.Status.CREATED)
+                        .id(candidate.getId())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    private static BatchItemResult rejected(int index, List<String> errors) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(BatchItemResult.Status.REJECTED)
+                .errors(List.copyOf(errors))
+                .build();
+    }
+
+    private static String value(List<String> values, int column) {
+        if (column >= values.size()) {
+            return null;
+        }
+        String value = values.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and escaped quotes ({@code ""}).
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record Row(int index, AppointmentRequest request, List<String> errors) {
+    }
+}
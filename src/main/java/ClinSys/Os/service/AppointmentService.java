@@ -1,31 +1,60 @@
 package ClinSys.Os.service;
 
+import ClinSys.Os.api.dto.AppointmentFilter;
 import ClinSys.Os.api.dto.AppointmentRequest;
 import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.api.dto.CursorPage;
 import ClinSys.Os.domain.model.Appointment;
 import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.ArchivedAppointment;
 import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.ArchivedAppointmentRepository;
+import ClinSys.Os.service.event.AppointmentChangedEvent;
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
 import ClinSys.Os.service.exception.BusinessException;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import ClinSys.Os.service.exception.PreconditionFailedException;
 import ClinSys.Os.service.exception.ResourceNotFoundException;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
+import ClinSys.Os.service.scheduling.SchedulingEngine.Slot;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+
+import static ClinSys.Os.domain.repository.AppointmentSpecifications.*;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "clinsys.service", description = "Time spent in service methods")
 /**
  * Service class for managing appointments.
  * Handles business logic for creating, retrieving, updating, and deleting appointments.
  */
 public class AppointmentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final AppointmentRepository repository;
+    private final SchedulingEngine scheduling;
+    private final ApplicationEventPublisher events;
+    private final AppointmentOutbox outbox;
+    private final TransactionOperations transactions;
+    private final ArchivedAppointmentRepository archive;
 
     /**
      * Checks if the current authenticated user has a specific role.
@@ -44,7 +73,7 @@ public class AppointmentService {
      *
      * @param request The appointment creation request.
      * @return The created appointment response.
-     * @throws BusinessException if the appointment date is in the past.
+     * @throws BusinessException if the appointment date is in the past or the doctor is already booked at that time.
      */
     public AppointmentResponse create(AppointmentRequest request) {
         if (request.getDateTime().isBefore(LocalDateTime.now())) {
@@ -54,28 +83,51 @@ public class AppointmentService {
         var appointment = Appointment.builder()
                 .patientName(request.getPatientName())
                 .doctorName(request.getDoctorName())
-                .specialty(request.getSpecialty())
+                .specialtyName(request.getSpecialty())
                 .dateTime(request.getDateTime())
                 .status(AppointmentStatus.SCHEDULED)
                 .build();
 
-        var saved = repository.save(appointment);
+        var saved = save(ChangeType.CREATED, null, appointment);
         return mapToResponse(saved);
     }
 
     /**
-     * Retrieves all appointments.
+     * Retrieves one page of appointments ordered by date/time, using keyset pagination.
+     * Each page is a bounded index range scan, so latency does not grow with the page depth.
      *
-     * @return A list of appointment responses.
+     * @param filter Optional filters (doctor, specialty, status and date range).
+     * @param cursor Opaque cursor returned by the previous page, or null for the first page.
+     * @param size Requested page size (clamped to {@link #MAX_PAGE_SIZE}).
+     * @return The page of appointment responses and the cursor for the next one.
+     * @throws InvalidRequestException if the cursor is malformed.
      */
-    public List<AppointmentResponse> findAll() {
-        return repository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<AppointmentResponse> findPage(AppointmentFilter filter, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        Specification<Appointment> spec = Specification.where(doctorNameEquals(filter.getDoctorName()))
+                .and(specialtyEquals(filter.getSpecialty()))
+                .and(statusEquals(filter.getStatus()))
+                .and(dateTimeFrom(filter.getFrom()))
+                .and(dateTimeBefore(filter.getTo()));
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(decodeCursor(cursor));
+        }
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<Appointment> rows = repository.findBy(spec, q -> q.sortBy(KEYSET_ORDER).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<Appointment> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return CursorPage.<AppointmentResponse>builder()
+                .items(pageRows.stream().map(AppointmentService::mapToResponse).toList())
+                .nextCursor(hasMore ? encodeCursor(pageRows.get(pageRows.size() - 1)) : null)
+                .size(pageRows.size())
+                .build();
     }
 
     /**
-     * Retrieves an appointment by its ID.
+     * Retrieves an appointment by its ID, from the archive once it has been archived.
      *
      * @param id The UUID of the appointment.
      * @return The appointment response.
@@ -83,7 +135,8 @@ public class AppointmentService {
      */
     public AppointmentResponse findById(UUID id) {
         return repository.findById(id)
-                .map(this::mapToResponse)
+                .or(() -> archive.findWithReferencesById(id).map(ArchivedAppointment::toAppointment))
+                .map(AppointmentService::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
     }
 
@@ -97,9 +150,41 @@ public class AppointmentService {
      * @throws BusinessException if business rules are violated.
      */
     public AppointmentResponse update(UUID id, AppointmentRequest request) {
+        return update(id, request, null);
+    }
+
+    /**
+     * Updates an existing appointment only if it still has the version the client last read.
+     * Concurrent writers are detected by the entity version instead of row locks.
+     *
+     * @param id The UUID of the appointment to update.
+     * @param request The update request data.
+     * @param expectedVersion The version from the client's If-Match header, or null to skip the check.
+     * @return The updated appointment response.
+     * @throws ResourceNotFoundException if the appointment is not found.
+     * @throws PreconditionFailedException if the appointment no longer has the expected version.
+     * @throws BusinessException if business rules are violated or another request updated it concurrently.
+     */
+    public AppointmentResponse update(UUID id, AppointmentRequest request, Long expectedVersion) {
         var appointment = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+        if (expectedVersion != null && !expectedVersion.equals(appointment.getVersion())) {
+            throw new PreconditionFailedException("Appointment was modified since it was read");
+        }
+        try {
+            return applyUpdate(appointment, request);
+        } catch (OptimisticLockingFailureException e) {
+            // Another request saved a newer version between our read and write
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("Appointment was modified since it was read");
+            }
+            throw new BusinessException("Appointment was modified by another request, reload and try again");
+        }
+    }
+
+    private AppointmentResponse applyUpdate(Appointment appointment, AppointmentRequest request) {
 
+        Slot previous = Slot.of(appointment);
         boolean isAdmin = hasRole("ADMIN");
         boolean isDoctor = hasRole("DOCTOR");
         boolean isReceptionist = hasRole("RECEPTIONIST");
@@ -112,7 +197,7 @@ public class AppointmentService {
                 throw new BusinessException("Receptionists can only cancel appointments");
             }
             appointment.setStatus(AppointmentStatus.CANCELED);
-            return mapToResponse(repository.save(appointment));
+            return mapToResponse(save(ChangeType.UPDATED, previous, appointment));
         }
 
         if (isDoctor) {
@@ -125,7 +210,7 @@ public class AppointmentService {
                  }
                 appointment.setStatus(request.getStatus());
             }
-            return mapToResponse(repository.save(appointment));
+            return mapToResponse(save(ChangeType.UPDATED, previous, appointment));
         }
 
         if (request.getDateTime() != null && request.getDateTime().isBefore(LocalDateTime.now())) {
@@ -140,14 +225,14 @@ public class AppointmentService {
 
         appointment.setPatientName(request.getPatientName());
         appointment.setDoctorName(request.getDoctorName());
-        appointment.setSpecialty(request.getSpecialty());
+        appointment.setSpecialtyName(request.getSpecialty());
         appointment.setDateTime(request.getDateTime());
         
         if (request.getStatus() != null) {
             appointment.setStatus(request.getStatus());
         }
 
-        var updated = repository.save(appointment);
+        var updated = save(ChangeType.UPDATED, previous, appointment);
         return mapToResponse(updated);
     }
 
@@ -161,17 +246,64 @@ public class AppointmentService {
         var appointment = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
         
-        repository.delete(appointment);
+        scheduling.apply(Slot.of(appointment), null, () -> transactions.execute(status -> {
+            repository.delete(appointment);
+            recordChange(ChangeType.DELETED, appointment);
+            return appointment;
+        }));
+    }
+
+    /**
+     * Persists an appointment through the scheduling engine, which rejects overlapping slots
+     * and keeps its per-doctor index in sync. The change is recorded in the outbox in the same transaction.
+     *
+     * @param change The kind of change, for the outbox and the change feed.
+     * @param previous The slot held before the change, or null for a new appointment.
+     */
+    private Appointment save(ChangeType change, Slot previous, Appointment appointment) {
+        return scheduling.apply(previous, Slot.of(appointment), () -> transactions.execute(status -> {
+            var saved = repository.save(appointment);
+            // Flush so the outbox event carries the incremented version
+            repository.flush();
+            recordChange(change, saved);
+            return saved;
+        }));
+    }
+
+    /**
+     * Must run inside the write transaction: the outbox row commits with the change,
+     * and the change feed is notified only after the commit.
+     */
+    private void recordChange(ChangeType type, Appointment appointment) {
+        var response = mapToResponse(appointment);
+        outbox.append(type, response);
+        events.publishEvent(new AppointmentChangedEvent(type, response));
+    }
+
+    private String encodeCursor(Appointment last) {
+        String raw = last.getDateTime() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<Appointment> decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return after(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
     }
 
-    private AppointmentResponse mapToResponse(Appointment appointment) {
+    public static AppointmentResponse mapToResponse(Appointment appointment) {
         return AppointmentResponse.builder()
                 .id(appointment.getId())
                 .patientName(appointment.getPatientName())
                 .doctorName(appointment.getDoctorName())
-                .specialty(appointment.getSpecialty())
+                .specialty(appointment.getSpecialtyName())
                 .dateTime(appointment.getDateTime())
                 .status(appointment.getStatus())
+                .version(appointment.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,291 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.AppointmentStatsResponse;
+import ClinSys.Os.api.dto.AppointmentStatsResponse.Bucket;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.ArchivedAppointment;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static ClinSys.Os.domain.repository.AppointmentSpecifications.*;
+
+@Service
+@Timed(value = "clinsys.service", description = "Time spent in service methods")
+/**
+ * Service class for aggregated appointment statistics.
+ * Each report is a single {@code GROUP BY} query answered from the covering index
+ * {@code idx_appointments_stats_refs} (joined to the doctor or specialty for its name);
+ * weeks and months are folded from daily rows in memory. Ranges reaching back before the current month
+ * also count the appointments moved to {@code appointments_archive}, with the same query against it.
+ * Reports are cached for {@code clinsys.stats.cache-ttl}, so they may lag behind writes by that much.
+ */
+public class AppointmentStatsService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int DEFAULT_RANGE_DAYS = 30;
+
+    public enum GroupBy {
+        STATUS,
+        DOCTOR,
+        SPECIALTY,
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    private final EntityManager entityManager;
+    private final AvailabilityService availability;
+    private final SchedulingEngine scheduling;
+    private final Cache<Query, AppointmentStatsResponse> cache;
+
+    public AppointmentStatsService(
+            EntityManager entityManager,
+            AvailabilityService availability,
+            SchedulingEngine scheduling,
+            @Value("${clinsys.stats.cache-ttl:30s}") Duration cacheTtl,
+            @Value("${clinsys.stats.cache-size:500}") long cacheSize
+    ) {
+        this.entityManager = entityManager;
+        this.availability = availability;
+        this.scheduling = scheduling;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheTtl.isZero() ? 0 : cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Counts appointments per status and per group, with the utilization of the doctors' bookable slots.
+     *
+     * @param groupBy One of status, doctor, specialty, day, week or month (case-insensitive).
+     * @param from First day (inclusive); defaults to {@link #DEFAULT_RANGE_DAYS} days before {@code to}.
+     * @param to Last day (inclusive); defaults to today.
+     * @param doctorName Only this doctor, or null for all.
+     * @param specialty Only this specialty, or null for all.
+     * @return The report.
+     * @throws InvalidRequestException if the grouping or the range is invalid.
+     */
+    @Transactional(readOnly = true)
+    public AppointmentStatsResponse getStats(String groupBy, LocalDate from, LocalDate to, String doctorName, String specialty) {
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (last.isBefore(first) || ChronoUnit.DAYS.between(first, last) >= MAX_RANGE_DAYS) {
+            throw new InvalidRequestException("Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+        var query = new Query(parseGroupBy(groupBy), first, last, blankToNull(doctorName), blankToNull(specialty));
+        return cache.get(query, this::compute);
+    }
+
+    private AppointmentStatsResponse compute(Query query) {
+        Map<String, Map<AppointmentStatus, Long>> counts = new TreeMap<>();
+        if (isTimeBucket(query.groupBy())) {
+            // Empty days, weeks and months are reported too, so charts have no gaps
+            for (LocalDate day = query.from(); !day.isAfter(query.to()); day = day.plusDays(1)) {
+                counts.computeIfAbsent(bucketKey(query.groupBy(), day), k -> new EnumMap<>(AppointmentStatus.class));
+            }
+        }
+        List<Tuple> rows = new ArrayList<>(countByKeyAndStatus(query, Appointment.class));
+        if (reachesArchive(query)) {
+            rows.addAll(countByKeyAndStatus(query, ArchivedAppointment.class));
+        }
+        for (Tuple row : rows) {
+            String key = bucketKey(query.groupBy(), row.get(0));
+            AppointmentStatus status = row.get(1, AppointmentStatus.class);
+            counts.computeIfAbsent(key, k -> new EnumMap<>(AppointmentStatus.class))
+                    .merge(status, row.get(2, Long.class), Long::sum);
+        }
+
+        long doctors = doctorCount(query);
+        Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        List<Bucket> buckets = new ArrayList<>(counts.size());
+        counts.forEach((key, statusCounts) -> {
+            statusCounts.forEach((status, count) -> byStatus.merge(status, count, Long::sum));
+            buckets.add(Bucket.builder()
+                    .key(key)
+                    .total(sum(statusCounts))
+                    .byStatus(statusCounts)
+                    .utilization(utilization(query, key, statusCounts, doctors))
+                    .build());
+        });
+
+        return AppointmentStatsResponse.builder()
+                .from(query.from())
+                .to(query.to())
+                .groupBy(query.groupBy().name().toLowerCase(Locale.ROOT))
+                .total(sum(byStatus))
+                .byStatus(byStatus)
+                .buckets(buckets)
+                .build();
+    }
+
+    private List<Tuple> countByKeyAndStatus(Query query, Class<?> entity) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<?> root = criteria.from(entity);
+        Expression<?> key = switch (query.groupBy()) {
+            case STATUS -> root.get("status");
+            case DOCTOR -> root.join("doctor").get("name");
+            case SPECIALTY -> root.join("specialty").get("name");
+            case DAY, WEEK, MONTH -> root.<LocalDateTime>get("dateTime").as(LocalDate.class);
+        };
+        Specification<Appointment> spec = Specification.where(doctorNameEquals(query.doctorName()))
+                .and(specialtyEquals(query.specialty()))
+                .and(inRange(query));
+        criteria.multiselect(key, root.get("status"), cb.count(root))
+                .where(predicate(spec, root, criteria, cb))
+                .groupBy(key, root.get("status"));
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
+    /**
+     * Doctors whose slots count as capacity for a time bucket; doctor and specialty buckets count their own.
+     */
+    private long doctorCount(Query query) {
+        if (query.doctorName() != null) {
+            return 1;
+        }
+        if (query.specialty() != null) {
+            return scheduling.doctorsWithSpecialty(query.specialty()).size();
+        }
+        if (isTimeBucket(query.groupBy())) {
+            Set<UUID> doctors = new HashSet<>(doctorIds(query, Appointment.class));
+            if (reachesArchive(query)) {
+                doctors.addAll(doctorIds(query, ArchivedAppointment.class));
+            }
+            return doctors.size();
+        }
+        return 0;
+    }
+
+    private List<UUID> doctorIds(Query query, Class<?> entity) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> criteria = cb.createQuery(UUID.class);
+        Root<?> root = criteria.from(entity);
+        criteria.select(root.get("doctor").get("id")).distinct(true).where(predicate(inRange(query), root, criteria, cb));
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
+    private static Specification<Appointment> inRange(Query query) {
+        return Specification.where(dateTimeFrom(query.from().atStartOfDay()))
+                .and(dateTimeBefore(query.to().plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Applies an appointment specification to either table: {@link ArchivedAppointment} has the same
+     * attributes, and the specifications only navigate them by name.
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate predicate(Specification<Appointment> spec, Root<?> root, CriteriaQuery<?> criteria, CriteriaBuilder cb) {
+        return spec.toPredicate((Root<Appointment>) root, criteria, cb);
+    }
+
+    /**
+     * Only months before the current one are ever archived.
+     */
+    private static boolean reachesArchive(Query query) {
+        return query.from().isBefore(YearMonth.now().atDay(1));
+    }
+
+    private Double utilization(Query query, String key, Map<AppointmentStatus, Long> counts, long doctors) {
+        long doctorsInBucket = switch (query.groupBy()) {
+            case STATUS -> 0;
+            case DOCTOR -> 1;
+            case SPECIALTY -> query.doctorName() != null ? 1 : scheduling.doctorsWithSpecialty(key).size();
+            case DAY, WEEK, MONTH -> doctors;
+        };
+        LocalDate first = query.from();
+        LocalDate last = query.to();
+        if (query.groupBy() == GroupBy.DAY) {
+            first = last = LocalDate.parse(key);
+        } else if (query.groupBy() == GroupBy.WEEK) {
+            first = max(first, LocalDate.parse(key));
+            last = min(last, LocalDate.parse(key).plusDays(6));
+        } else if (query.groupBy() == GroupBy.MONTH) {
+            YearMonth month = YearMonth.parse(key);
+            first = max(first, month.atDay(1));
+            last = min(last, month.atEndOfMonth());
+        }
+        long capacity = availability.capacity(first, last) * doctorsInBucket;
+        if (capacity == 0) {
+            return null;
+        }
+        long booked = sum(counts) - counts.getOrDefault(AppointmentStatus.CANCELED, 0L);
+        return (double) booked / capacity;
+    }
+
+    private static String bucketKey(GroupBy groupBy, Object value) {
+        return switch (groupBy) {
+            case STATUS -> ((AppointmentStatus) value).name();
+            case DOCTOR, SPECIALTY -> (String) value;
+            case DAY -> value.toString();
+            case WEEK -> ((LocalDate) value).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+            case MONTH -> YearMonth.from((LocalDate) value).toString();
+        };
+    }
+
+    private static boolean isTimeBucket(GroupBy groupBy) {
+        return groupBy == GroupBy.DAY || groupBy == GroupBy.WEEK || groupBy == GroupBy.MONTH;
+    }
+
+    private static GroupBy parseGroupBy(String groupBy) {
+        if (groupBy == null || groupBy.isBlank()) {
+            return GroupBy.STATUS;
+        }
+        try {
+            return GroupBy.valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("groupBy must be one of status, doctor, specialty, day, week or month");
+        }
+    }
+
+    private static long sum(Map<AppointmentStatus, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record Query(GroupBy groupBy, LocalDate from, LocalDate to, String doctorName, String specialty) {
+    }
+}
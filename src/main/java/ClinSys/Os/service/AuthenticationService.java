@@ -5,22 +5,24 @@ import ClinSys.Os.api.dto.LoginRequest;
 import ClinSys.Os.api.dto.RegisterRequest;
 import ClinSys.Os.domain.model.User;
 import ClinSys.Os.domain.repository.UserRepository;
+import ClinSys.Os.security.BoundedPasswordEncoder;
 import ClinSys.Os.security.JwtService;
 import ClinSys.Os.service.exception.BusinessException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "clinsys.service", description = "Time spent in service methods")
 /**
  * Service class for handling user authentication and registration.
  */
 public class AuthenticationService {
     private final UserRepository repository;
-    private final PasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
 
@@ -30,6 +32,7 @@ public class AuthenticationService {
      * @param request The registration request containing username, password, and role.
      * @return The authentication response containing the JWT token.
      * @throws BusinessException if the username already exists.
+     * @throws ClinSys.Os.service.exception.TooManyRequestsException if the password hashing queue is full.
      */
     public AuthenticationResponse register(RegisterRequest request) {
         repository.findByUsername(request.getUsername()).ifPresent(u -> {
@@ -37,7 +40,7 @@ public class AuthenticationService {
         });
         var user = User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordEncoder.encode(request.getPassword(), request.getRole()))
                 .role(request.getRole())
                 .build();
         repository.save(user);
@@ -51,9 +54,12 @@ public class AuthenticationService {
 
     /**
      * Authenticates a user.
+     * If the stored hash was computed with a different work factor than the one configured for the
+     * user (or, without one, for the user's role), the password is rehashed with the current one.
      *
      * @param request The login request containing username and password.
      * @return The authentication response containing the JWT token.
+     * @throws ClinSys.Os.service.exception.TooManyRequestsException if the password hashing queue is full.
      */
     public AuthenticationResponse authenticate(LoginRequest request) {
         authenticationManager.authenticate(
@@ -64,6 +70,10 @@ public class AuthenticationService {
         );
         var user = repository.findByUsername(request.getUsername())
                 .orElseThrow();
+        if (passwordEncoder.needsRehash(user.getPassword(), user)) {
+            user.setPassword(passwordEncoder.encode(request.getPassword(), user));
+            repository.save(user);
+        }
         var extraClaims = new java.util.HashMap<String, Object>();
         extraClaims.put("role", user.getRole().name());
         var jwtToken = jwtService.generateToken(extraClaims, user);
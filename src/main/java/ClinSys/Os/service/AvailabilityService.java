@@ -0,0 +1,107 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.AvailableSlotResponse;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+/**
+ * Service class for free-slot searches.
+ * Slots are computed from the in-memory occupancy kept by {@link SchedulingEngine}; no query hits the database.
+ */
+public class AvailabilityService {
+
+    public static final int MAX_RANGE_DAYS = 62;
+    public static final int MAX_RESULTS = 1000;
+
+    private final SchedulingEngine scheduling;
+    private final LocalTime openingTime;
+    private final LocalTime closingTime;
+    private final Set<DayOfWeek> workingDays;
+
+    public AvailabilityService(
+            SchedulingEngine scheduling,
+            @Value("${clinsys.scheduling.opening-time:08:00}") String openingTime,
+            @Value("${clinsys.scheduling.closing-time:18:00}") String closingTime,
+            @Value("${clinsys.scheduling.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") List<DayOfWeek> workingDays
+    ) {
+        this.scheduling = scheduling;
+        this.openingTime = LocalTime.parse(openingTime);
+        this.closingTime = LocalTime.parse(closingTime);
+        this.workingDays = workingDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(workingDays);
+    }
+
+    /**
+     * Finds free slots for a doctor, or for every doctor of a specialty, ordered by start time.
+     *
+     * @param doctorName The doctor to search (takes precedence over specialty).
+     * @param specialty The specialty whose doctors are searched.
+     * @param from First day of the search (inclusive).
+     * @param to Last day of the search (inclusive).
+     * @param slotLength Length of each slot; defaults to the appointment duration.
+     * @param limit Maximum number of slots to return (clamped to {@link #MAX_RESULTS}).
+     * @return The free slots.
+     * @throws InvalidRequestException if neither doctor nor specialty is given or the range is invalid.
+     */
+    public List<AvailableSlotResponse> findAvailableSlots(
+            String doctorName, String specialty, LocalDate from, LocalDate to, Duration slotLength, int limit
+    ) {
+        if ((doctorName == null || doctorName.isBlank()) && (specialty == null || specialty.isBlank())) {
+            throw new InvalidRequestException("Either doctorName or specialty is required");
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidRequestException("Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+        Duration length = slotLength != null ? slotLength : scheduling.getAppointmentDuration();
+        if (length.isNegative() || length.isZero()) {
+            throw new InvalidRequestException("Slot length must be positive");
+        }
+        int maxResults = Math.min(Math.max(limit, 1), MAX_RESULTS);
+        List<String> doctors = doctorName != null && !doctorName.isBlank()
+                ? List.of(doctorName)
+                : scheduling.doctorsWithSpecialty(specialty).stream().sorted().toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AvailableSlotResponse> result = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to) && result.size() < maxResults; day = day.plusDays(1)) {
+            if (!workingDays.contains(day.getDayOfWeek()) || day.isBefore(now.toLocalDate())) {
+                continue;
+            }
+            List<AvailableSlotResponse> daySlots = new ArrayList<>();
+            for (String doctor : doctors) {
+                for (LocalDateTime start : scheduling.freeSlots(doctor, day, openingTime, closingTime, length)) {
+                    if (start.isAfter(now)) {
+                        daySlots.add(new AvailableSlotResponse(doctor, start, start.plus(length)));
+                    }
+                }
+            }
+            daySlots.sort(Comparator.comparing(AvailableSlotResponse::getStart).thenComparing(AvailableSlotResponse::getDoctorName));
+            result.addAll(daySlots.subList(0, Math.min(daySlots.size(), maxResults - result.size())));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the appointments one doctor can take between two days (inclusive): full appointment
+     * durations within opening hours, on working days.
+     */
+    public long capacity(LocalDate from, LocalDate to) {
+        long slotsPerDay = Duration.between(openingTime, closingTime).toMinutes() / scheduling.getAppointmentDuration().toMinutes();
+        long days = from.datesUntil(to.plusDays(1)).filter(day -> workingDays.contains(day.getDayOfWeek())).count();
+        return slotsPerDay * days;
+    }
+}
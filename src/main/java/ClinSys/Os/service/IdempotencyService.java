@@ -0,0 +1,239 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.domain.repository.IdempotencyRecordRepository;
+import ClinSys.Os.service.exception.BusinessException;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@Timed(value = "clinsys.service", description = "Time spent in service methods")
+/**
+ * Service class for {@code Idempotency-Key} requests: a retried request gets the response of the first one
+ * instead of running again.
+ * Keys are scoped to the caller and remembered with a hash of the request body for {@code clinsys.idempotency.ttl}
+ * in a bounded in-memory store; with {@code clinsys.idempotency.persistent} they are also claimed in the
+ * {@code idempotency_keys} table, so retries reaching another instance or arriving after a restart are recognized too.
+ * Only successful responses are remembered: a request that failed can be retried with the same key.
+ */
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Entry> cache;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Duration abandonAfter;
+    private final Counter replayed;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${clinsys.idempotency.ttl:24h}") Duration ttl,
+            @Value("${clinsys.idempotency.max-size:10000}") long maxSize,
+            @Value("${clinsys.idempotency.persistent:false}") boolean persistent,
+            @Value("${clinsys.idempotency.abandon-after:1m}") Duration abandonAfter
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Claims and responses commit on their own, whatever the caller's transaction does
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.persistent = persistent;
+        this.ttl = ttl;
+        this.abandonAfter = abandonAfter;
+        this.replayed = Counter.builder("clinsys.idempotency.replayed")
+                .description("Requests answered with the stored response of an earlier request with the same Idempotency-Key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the action once per key: a retry with the same key and request gets the first response back.
+     *
+     * @param key Value of the {@code Idempotency-Key} header, or null to just run the action.
+     * @param request Request body; a retry must send the same one.
+     * @param responseType Type of the response, to read it back from the persistent store.
+     * @param action Produces the response; not called for a retry.
+     * @return The response, and whether it was replayed.
+     * @throws InvalidRequestException if the key is blank or too long, or was used with a different request.
+     * @throws BusinessException if the first request with this key is still being processed.
+     */
+    public <T> Result<T> execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = digest(caller() + "\n" + key);
+        String requestHash = HexFormat.of().formatHex(sha256(toJson(request).getBytes(StandardCharsets.UTF_8)));
+
+        Entry claim = new Entry(requestHash, null);
+        Entry existing = cache.asMap().putIfAbsent(id, claim);
+        if (existing != null) {
+            return replay(existing, requestHash, responseType);
+        }
+        if (persistent) {
+            Entry stored;
+            try {
+                stored = claimStored(id, requestHash);
+            } catch (RuntimeException e) {
+                cache.asMap().remove(id, claim);
+                throw e;
+            }
+            if (stored != null) {
+                cache.asMap().remove(id, claim);
+                if (stored.response() != null) {
+                    cache.put(id, stored);
+                }
+                return replay(stored, requestHash, responseType);
+            }
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            cache.asMap().remove(id, claim);
+            if (persistent) {
+                transactionTemplate.executeWithoutResult(status -> repository.deletePending(id));
+            }
+            throw e;
+        }
+        cache.put(id, new Entry(requestHash, response));
+        if (persistent) {
+            String json = toJson(response);
+            transactionTemplate.executeWithoutResult(status -> repository.complete(id, json));
+        }
+        return new Result<>(response, false);
+    }
+
+    @Scheduled(fixedDelayString = "${clinsys.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        if (persistent) {
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Claims the key in the table.
+     *
+     * @return null if this request claimed it, otherwise the request that holds it (with a null response while in progress).
+     */
+    private Entry claimStored(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.insertPending(id, requestHash, now));
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            // Taken by an earlier request, possibly on another instance
+        }
+        Integer taken = transactionTemplate.execute(status ->
+                repository.takeOver(id, requestHash, now, now.minus(ttl), now.minus(abandonAfter)));
+        if (taken != null && taken == 1) {
+            return null;
+        }
+        return repository.findById(id)
+                .map(record -> new Entry(record.getRequestHash(), record.getResponse() == null ? null : new StoredJson(record.getResponse())))
+                // Released by a failed request in the meantime: let the client retry
+                .orElseGet(() -> new Entry(requestHash, null));
+    }
+
+    private <T> Result<T> replay(Entry entry, String requestHash, Class<T> responseType) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new InvalidRequestException(HEADER + " was already used for a different request");
+        }
+        if (entry.response() == null) {
+            throw new BusinessException("A request with this " + HEADER + " is still being processed");
+        }
+        replayed.increment();
+        Object response = entry.response() instanceof StoredJson json ? fromJson(json.value(), responseType) : entry.response();
+        return new Result<>(responseType.cast(response), true);
+    }
+
+    private static String caller() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? "" : auth.getName();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored " + type.getSimpleName(), e);
+        }
+    }
+
+    private static String digest(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] sha256(byte[] value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param response The response of the action, or the stored one.
+     * @param replayed Whether the response was stored by an earlier request.
+     */
+    public record Result<T>(T response, boolean replayed) {
+    }
+
+    /**
+     * @param response The response object, {@link StoredJson} when read from the table, or null while in progress.
+     */
+    private record Entry(String requestHash, Object response) {
+    }
+
+    private record StoredJson(String value) {
+    }
+}
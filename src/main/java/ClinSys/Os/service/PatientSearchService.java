@@ -0,0 +1,121 @@
+package ClinSys.Os.service;
+
+import ClinSys.Os.api.dto.CursorPage;
+import ClinSys.Os.api.dto.PatientResponse;
+import ClinSys.Os.domain.model.NamedReference;
+import ClinSys.Os.domain.model.Patient;
+import ClinSys.Os.domain.repository.PatientRepository;
+import ClinSys.Os.service.exception.InvalidRequestException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@Timed(value = "clinsys.service", description = "Time spent in service methods")
+/**
+ * Service class for searching patients by partial name.
+ * On PostgreSQL, queries of at least {@link #MIN_SIMILARITY_LENGTH} characters match substrings and,
+ * through {@code pg_trgm} word similarity, misspelled names; shorter queries match name prefixes.
+ * Both are answered from indexes on {@code patients}, which holds one row per patient however many
+ * appointments they have. Other databases get plain substring matching.
+ */
+public class PatientSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    /** Ranked results are paged by offset; deeper pages mean the query should be refined. */
+    public static final int MAX_RESULTS = 1000;
+    /** Shorter queries have too few trigrams to be selective. */
+    public static final int MIN_SIMILARITY_LENGTH = 3;
+
+    private final PatientRepository repository;
+    private final boolean trigrams;
+    private final String similarityThreshold;
+
+    public PatientSearchService(
+            PatientRepository repository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${clinsys.patients.search.similarity-threshold:0.4}") double similarityThreshold
+    ) {
+        this.repository = repository;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        this.trigrams = "PostgreSQL".equals(product);
+        this.similarityThreshold = Double.toString(similarityThreshold);
+    }
+
+    /**
+     * Finds patients whose name matches the query, best matches first.
+     *
+     * @param query Part of the name (case and extra spaces are ignored).
+     * @param cursor Opaque cursor returned by the previous page, or null for the first page.
+     * @param size Requested page size (clamped to {@link #MAX_PAGE_SIZE}).
+     * @return The page of patients and the cursor for the next one.
+     * @throws InvalidRequestException if the query is blank or the cursor is malformed.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PatientResponse> search(String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("q is required");
+        }
+        String normalized = NamedReference.normalize(query).toLowerCase(Locale.ROOT);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int offset = cursor == null || cursor.isBlank() ? 0 : decodeCursor(cursor);
+        int limit = Math.min(pageSize, MAX_RESULTS - offset);
+        if (limit == 0) {
+            return CursorPage.<PatientResponse>builder().items(List.of()).size(0).build();
+        }
+
+        String prefix = escapeLike(normalized) + "%";
+        List<Patient> rows;
+        if (normalized.length() < MIN_SIMILARITY_LENGTH) {
+            rows = trigrams
+                    ? repository.searchByPrefixIndexed(prefix, limit + 1, offset)
+                    : repository.searchByPrefix(prefix, limit + 1, offset);
+        } else if (trigrams) {
+            repository.setSimilarityThreshold(similarityThreshold);
+            rows = repository.searchSimilar(normalized, "%" + prefix, prefix, limit + 1, offset);
+        } else {
+            rows = repository.searchContaining("%" + prefix, prefix, limit + 1, offset);
+        }
+
+        // One extra row tells whether there is a next page
+        boolean hasMore = rows.size() > limit && offset + limit < MAX_RESULTS;
+        List<PatientResponse> items = rows.stream()
+                .limit(limit)
+                .map(p -> PatientResponse.builder().id(p.getId()).name(p.getName()).build())
+                .toList();
+        return CursorPage.<PatientResponse>builder()
+                .items(items)
+                .nextCursor(hasMore ? encodeCursor(offset + items.size()) : null)
+                .size(items.size())
+                .build();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0 || offset > MAX_RESULTS) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
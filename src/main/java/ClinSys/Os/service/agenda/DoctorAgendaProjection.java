@@ -0,0 +1,255 @@
+package ClinSys.Os.service.agenda;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.OutboxEvent;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.OutboxEventRepository;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.event.AppointmentChangedEvent;
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Read model with the agenda of every doctor, keyed by doctor and day.
+ * Each day holds an immutable list ordered by time, replaced copy-on-write when one of its appointments changes,
+ * so a read is a single map lookup and never scans or sorts. The projection is built from {@code appointments}
+ * at startup and then follows committed changes; days older than {@code clinsys.agenda.past-days} are not kept.
+ * Change events only reach the instance that made the change, so every {@code clinsys.agenda.refresh-interval} the
+ * projection also reads the appointment events added to the outbox since the previous pass: that interval bounds how
+ * long another instance's writes can go unseen.
+ */
+@Slf4j
+@Component
+public class DoctorAgendaProjection implements SmartInitializingSingleton {
+
+    private static final Comparator<AppointmentResponse> ORDER =
+            Comparator.comparing(AppointmentResponse::getDateTime).thenComparing(AppointmentResponse::getId);
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final AppointmentRepository repository;
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pastDays;
+    private final boolean refreshEnabled;
+    private final Duration refreshOverlap;
+    private final ConcurrentMap<DayKey, List<AppointmentResponse>> days = new ConcurrentHashMap<>();
+    // Last state applied per appointment (deleted ones are kept as tombstones), to drop out-of-order events
+    private final ConcurrentMap<UUID, Entry> latest = new ConcurrentHashMap<>();
+    private volatile LocalDate firstDay;
+    // Events created from here on (less the overlap) have not been read by a refresh yet
+    private volatile LocalDateTime refreshedUntil;
+
+    public DoctorAgendaProjection(
+            AppointmentRepository repository,
+            OutboxEventRepository outboxRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${clinsys.agenda.past-days:30}") int pastDays,
+            @Value("${clinsys.agenda.refresh-enabled:true}") boolean refreshEnabled,
+            @Value("${clinsys.agenda.refresh-overlap:PT1M}") Duration refreshOverlap
+    ) {
+        this.repository = repository;
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pastDays = pastDays;
+        this.refreshEnabled = refreshEnabled;
+        this.refreshOverlap = refreshOverlap;
+        this.firstDay = LocalDate.now().minusDays(pastDays);
+        this.refreshedUntil = LocalDateTime.now();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the projection from the appointments table. Meant for startup, before writes are accepted.
+     */
+    public void rebuild() {
+        LocalDate first = LocalDate.now().minusDays(pastDays);
+        days.clear();
+        latest.clear();
+        firstDay = first;
+        // Changes committed after the scan started may be missing from it: the next refresh reads them
+        refreshedUntil = LocalDateTime.now();
+        Long loaded = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<Appointment> rows = repository.streamFrom(first.atStartOfDay())) {
+                for (var it = rows.iterator(); it.hasNext(); count++) {
+                    apply(ChangeType.CREATED, AppointmentService.mapToResponse(it.next()));
+                }
+            }
+            return count;
+        });
+        log.info("Doctor agenda projection loaded with {} appointments in {} doctor-days", loaded, days.size());
+    }
+
+    /**
+     * @return Whether the day is kept by the projection; older days must be read from the database.
+     */
+    public boolean covers(LocalDate day) {
+        return !day.isBefore(firstDay);
+    }
+
+    /**
+     * @return The appointments of the doctor on that day, ordered by time (unmodifiable; do not mutate the items).
+     */
+    public List<AppointmentResponse> agenda(String doctorName, LocalDate day) {
+        return days.getOrDefault(new DayKey(Doctor.idOf(doctorName), day), List.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(AppointmentChangedEvent event) {
+        apply(event.type(), event.appointment());
+    }
+
+    @Scheduled(fixedDelayString = "${clinsys.agenda.refresh-interval:PT10S}", initialDelayString = "${clinsys.agenda.refresh-interval:PT10S}")
+    public void poll() {
+        if (refreshEnabled) {
+            refresh();
+        }
+    }
+
+    /**
+     * Applies the appointment events written to the outbox since the previous pass, by any instance.
+     * Only the events are read, never the appointments table. Each pass starts {@code clinsys.agenda.refresh-overlap}
+     * before where the previous one stopped, so a change whose transaction committed late or on a host with a
+     * lagging clock is still seen; events already applied are ignored by their version.
+     */
+    public void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime createdAt = refreshedUntil.minus(refreshOverlap);
+        long id = Long.MIN_VALUE;
+        int read = 0;
+        List<OutboxEvent> page;
+        do {
+            LocalDateTime afterCreatedAt = createdAt;
+            long afterId = id;
+            page = readOnlyTransaction.execute(status -> outboxRepository.findAfter(
+                    AppointmentOutbox.AGGREGATE_TYPE, afterCreatedAt, afterId, Limit.of(REFRESH_BATCH_SIZE)));
+            for (OutboxEvent event : page) {
+                apply(event);
+                createdAt = event.getCreatedAt();
+                id = event.getId();
+            }
+            read += page.size();
+        } while (page.size() == REFRESH_BATCH_SIZE);
+        refreshedUntil = started;
+        log.debug("Doctor agenda projection read {} outbox events", read);
+    }
+
+    /**
+     * Drops the days that left the window.
+     */
+    @Scheduled(cron = "${clinsys.agenda.prune-cron:0 10 0 * * *}")
+    public void prune() {
+        LocalDate first = LocalDate.now().minusDays(pastDays);
+        firstDay = first;
+        days.keySet().removeIf(key -> key.day().isBefore(first));
+        latest.values().removeIf(entry -> entry.appointment().getDateTime().toLocalDate().isBefore(first));
+    }
+
+    void apply(ChangeType type, AppointmentResponse next) {
+        boolean deleted = type == ChangeType.DELETED;
+        // compute serializes changes of the same appointment; different appointments update in parallel
+        latest.compute(next.getId(), (id, current) -> {
+            if (current != null && !supersedes(next, deleted, current)) {
+                return current;
+            }
+            if (current != null && !current.deleted()) {
+                remove(current.appointment());
+            }
+            if (deleted) {
+                return new Entry(next, true);
+            }
+            if (!covers(next.getDateTime().toLocalDate())) {
+                return null;
+            }
+            add(next);
+            return new Entry(next, false);
+        });
+    }
+
+    private void apply(OutboxEvent event) {
+        try {
+            apply(ChangeType.valueOf(event.getType()), objectMapper.readValue(event.getPayload(), AppointmentResponse.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Doctor agenda projection skipped unreadable outbox event {}", event.getId(), e);
+        }
+    }
+
+    int dayCount() {
+        return days.size();
+    }
+
+    private void add(AppointmentResponse appointment) {
+        days.compute(DayKey.of(appointment), (key, list) -> {
+            List<AppointmentResponse> next = new ArrayList<>(list == null ? 1 : list.size() + 1);
+            if (list != null) {
+                next.addAll(list);
+            }
+            int index = Collections.binarySearch(next, appointment, ORDER);
+            next.add(index < 0 ? -index - 1 : index, appointment);
+            return Collections.unmodifiableList(next);
+        });
+    }
+
+    private void remove(AppointmentResponse appointment) {
+        days.computeIfPresent(DayKey.of(appointment), (key, list) -> {
+            List<AppointmentResponse> next = list.stream().filter(a -> !a.getId().equals(appointment.getId())).toList();
+            return next.isEmpty() ? null : next;
+        });
+    }
+
+    /**
+     * A delete carries the last version it read, so it wins over an update with that same version.
+     */
+    private static boolean supersedes(AppointmentResponse next, boolean deleted, Entry current) {
+        long nextVersion = version(next);
+        long currentVersion = version(current.appointment());
+        return nextVersion > currentVersion || (nextVersion == currentVersion && deleted && !current.deleted());
+    }
+
+    private static long version(AppointmentResponse appointment) {
+        return appointment.getVersion() == null ? 0 : appointment.getVersion();
+    }
+
+    private record DayKey(UUID doctorId, LocalDate day) {
+
+        static DayKey of(AppointmentResponse appointment) {
+            return new DayKey(Doctor.idOf(appointment.getDoctorName()), appointment.getDateTime().toLocalDate());
+        }
+    }
+
+    private record Entry(AppointmentResponse appointment, boolean deleted) {
+    }
+}
@@ -0,0 +1,109 @@
+package ClinSys.Os.service.archive;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.repository.ArchivedAppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+
+/**
+ * Moves completed and canceled appointments of old months out of {@code appointments} into
+ * {@code appointments_archive}, so the live table and its indexes only hold recent history and the schedule.
+ * A month is archived once it is older than {@code clinsys.archive.after}; each month is moved in its own
+ * transaction, and on PostgreSQL its partition is dropped once nothing else is left in it.
+ * Appointments still scheduled or in progress stay where they are.
+ */
+@Slf4j
+@Component
+public class AppointmentArchiver {
+
+    private final ArchivedAppointmentRepository repository;
+    private final AppointmentPartitionManager partitions;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Period after;
+    private final Counter archived;
+
+    public AppointmentArchiver(
+            ArchivedAppointmentRepository repository,
+            AppointmentPartitionManager partitions,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${clinsys.archive.enabled:true}") boolean enabled,
+            @Value("${clinsys.archive.after:P12M}") Period after
+    ) {
+        this.repository = repository;
+        this.partitions = partitions;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.after = after;
+        this.archived = Counter.builder("clinsys.archive.archived")
+                .description("Appointments moved to the archive").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${clinsys.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Archives every month older than {@code clinsys.archive.after}.
+     *
+     * @return Number of appointments moved to the archive.
+     */
+    public int archive() {
+        return archiveBefore(YearMonth.now().minus(after));
+    }
+
+    /**
+     * Archives the months before the given one.
+     *
+     * @return Number of appointments moved to the archive.
+     */
+    public int archiveBefore(YearMonth cutoff) {
+        LocalDateTime oldest = repository.findOldestArchivable();
+        int total = 0;
+        if (oldest != null) {
+            for (YearMonth month = YearMonth.from(oldest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+                YearMonth current = month;
+                Integer moved = transactionTemplate.execute(status -> archiveMonth(current));
+                total += moved == null ? 0 : moved;
+            }
+        }
+        if (total > 0) {
+            // Archived rows may still sit in the second-level cache
+            entityManagerFactory.getCache().evict(Appointment.class);
+            archived.increment(total);
+            log.info("Archived {} appointments before {}", total, cutoff);
+        }
+        partitions.dropEmptyPartitionsBefore(cutoff);
+        return total;
+    }
+
+    private int archiveMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        if (partitions.isPartitioned()) {
+            return repository.moveToArchive(from, to, now);
+        }
+        int copied = repository.copyToArchive(from, to, now);
+        repository.deleteArchived(from, to);
+        return copied;
+    }
+}
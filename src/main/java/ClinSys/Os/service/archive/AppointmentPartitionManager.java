@@ -0,0 +1,108 @@
+package ClinSys.Os.service.archive;
+
+import ClinSys.Os.service.scheduling.OverlapConstraintInitializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code appointments} (migration 5) ahead of the calendar.
+ * The partitions for the current month and the next {@code clinsys.partitions.months-ahead} months are created
+ * at startup and daily after that, with their overlap constraints; appointments booked even further ahead land in
+ * the default partition and move into their month's partition when it is created.
+ * Does nothing unless {@code appointments} is a partitioned PostgreSQL table.
+ */
+@Slf4j
+@Component
+public class AppointmentPartitionManager implements SmartInitializingSingleton {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OverlapConstraintInitializer overlapConstraints;
+    private final int monthsAhead;
+    private volatile Boolean partitioned;
+
+    public AppointmentPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            OverlapConstraintInitializer overlapConstraints,
+            @Value("${clinsys.partitions.months-ahead:12}") int monthsAhead
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.overlapConstraints = overlapConstraints;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        createFuturePartitions();
+    }
+
+    @Scheduled(cron = "${clinsys.partitions.cron:0 0 3 * * *}")
+    public void createFuturePartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String partition = jdbcTemplate.queryForObject("SELECT ensure_appointment_partition(?)", String.class, month.atDay(1));
+            overlapConstraints.ensure(partition);
+        }
+    }
+
+    /**
+     * Detaches and drops the monthly partitions before the given month that hold no appointments.
+     *
+     * @return Names of the dropped partitions.
+     */
+    public List<String> dropEmptyPartitionsBefore(YearMonth month) {
+        List<String> dropped = new ArrayList<>();
+        if (!isPartitioned()) {
+            return dropped;
+        }
+        String limit = partitionName(month);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = 'appointments'::regclass AND c.relname ~ '^appointments_[0-9]{4}_[0-9]{2}$'"
+                        + " ORDER BY c.relname",
+                String.class);
+        for (String partition : partitions) {
+            // yyyy_MM suffixes sort chronologically
+            if (partition.compareTo(limit) >= 0) {
+                break;
+            }
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("ALTER TABLE appointments DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped.add(partition);
+            }
+        }
+        if (!dropped.isEmpty()) {
+            log.info("Dropped empty appointment partitions {}", dropped);
+        }
+        return dropped;
+    }
+
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equals(product) && "p".equals(jdbcTemplate.queryForObject(
+                    "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('appointments')", String.class));
+        }
+        return partitioned;
+    }
+
+    static String partitionName(YearMonth month) {
+        return "appointments_" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,141 @@
+package ClinSys.Os.service.async;
+
+import ClinSys.Os.service.exception.ServiceTimeoutException;
+import ClinSys.Os.service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking service calls (JPA work) for the async API on a dedicated, bounded pool, so the request
+ * thread is released while the database works.
+ * The pool has as many threads as the connection pool by default, and its bounded queue rejects the overflow
+ * with {@link TooManyRequestsException} (HTTP 429) instead of letting requests pile up behind a slow database.
+ * A call that has not completed within {@code clinsys.async.timeout}, queueing included, fails too: if it was
+ * still queued it is removed and never runs, so it is rejected with 429 like the overflow; if it had started, it runs
+ * to completion and a write may still commit, so it fails with {@link ServiceTimeoutException} (HTTP 504), which
+ * clients should not blindly retry.
+ * The caller's security context is propagated to the worker thread.
+ */
+@Slf4j
+@Component
+public class BlockingCallExecutor implements DisposableBean {
+
+    private static final String BUSY = "The appointment service is busy, please try again shortly";
+    private static final String TIMED_OUT = "The appointment service did not answer in time; the change may still be applied";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer timer;
+    private final Counter rejected;
+    private final Counter timedOut;
+    private final Counter timedOutRunning;
+
+    /**
+     * @param threads Worker threads; each holds a database connection while it runs.
+     * @param queueCapacity Calls that may wait for a worker before new ones are rejected.
+     * @param timeout Maximum time a request waits for its call, queueing included.
+     */
+    public BlockingCallExecutor(
+            @Value("${clinsys.async.threads:20}") int threads,
+            @Value("${clinsys.async.queue-capacity:200}") int queueCapacity,
+            @Value("${clinsys.async.timeout:10s}") Duration timeout,
+            MeterRegistry meterRegistry
+    ) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "blocking-call-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.timer = Timer.builder("clinsys.async.call")
+                .description("Time from submitting a blocking call to its completion, queueing included")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("clinsys.async.rejected").tag("reason", "queue-full")
+                .description("Blocking calls rejected because the queue was full or they timed out").register(meterRegistry);
+        this.timedOut = Counter.builder("clinsys.async.rejected").tag("reason", "timeout")
+                .description("Blocking calls rejected because the queue was full or they timed out").register(meterRegistry);
+        this.timedOutRunning = Counter.builder("clinsys.async.timed-out")
+                .description("Blocking calls still running when their request timed out").register(meterRegistry);
+        Gauge.builder("clinsys.async.queue", executor, e -> e.getQueue().size())
+                .description("Blocking calls waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("clinsys.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently running a blocking call")
+                .register(meterRegistry);
+        log.info("Blocking call pool: {} threads, queue capacity {}, timeout {}", threads, queueCapacity, timeout);
+    }
+
+    /**
+     * Submits a call and returns at once.
+     *
+     * @return A future completed with the call's result or exception; on timeout, with {@link TooManyRequestsException}
+     * if the call never started or {@link ServiceTimeoutException} if it did.
+     * @throws TooManyRequestsException if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Timer.Sample sample = Timer.start();
+        // Claimed by whichever comes first: a worker starting the call, or the timeout while it is queued
+        AtomicBoolean started = new AtomicBoolean();
+        Runnable task = () -> {
+            if (!started.compareAndSet(false, true)) {
+                // Timed out while queued: nobody is waiting for the result any more
+                return;
+            }
+            try {
+                future.complete(call.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        Runnable queued = new DelegatingSecurityContextRunnable(task);
+        try {
+            executor.execute(queued);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException(BUSY);
+        }
+        future.whenComplete((result, e) -> sample.stop(timer));
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).exceptionallyCompose(e -> {
+            if (e instanceof TimeoutException) {
+                if (started.compareAndSet(false, true)) {
+                    // Frees its queue slot at once instead of when a worker gets to it
+                    executor.remove(queued);
+                    timedOut.increment();
+                    return CompletableFuture.failedFuture(new TooManyRequestsException(BUSY));
+                }
+                timedOutRunning.increment();
+                return CompletableFuture.failedFuture(new ServiceTimeoutException(TIMED_OUT));
+            }
+            return CompletableFuture.failedFuture(e);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package ClinSys.Os.service.event;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+
+/**
+ * Published by the appointment services after an appointment is created, updated or deleted.
+ *
+ * @param type What happened to the appointment.
+ * @param appointment State after the change (for DELETED, the last state before removal).
+ */
+public record AppointmentChangedEvent(ChangeType type, AppointmentResponse appointment) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,7 @@
+package ClinSys.Os.service.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
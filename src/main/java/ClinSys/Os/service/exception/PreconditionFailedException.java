@@ -0,0 +1,7 @@
+package ClinSys.Os.service.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ClinSys.Os.service.exception;
+
+public class ServiceTimeoutException extends RuntimeException {
+    public ServiceTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,276 @@
+package ClinSys.Os.service.feed;
+
+import ClinSys.Os.api.dto.AppointmentChangeMessage;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.Specialty;
+import ClinSys.Os.service.event.AppointmentChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes appointment changes to dashboards over server-sent events, so clients load the list once and
+ * then apply deltas instead of polling.
+ * Every change gets a sequence number, used as the SSE event id, and the last {@code history-size}
+ * changes are kept so a client that reconnects with {@code Last-Event-ID} receives only what it missed.
+ * Each subscriber has a bounded buffer drained by its own sender; a subscriber that falls behind is sent
+ * {@code reset} and disconnected instead of slowing down writers or growing without bound.
+ * Sequence numbers are per instance and restart with the application; a client that resumes from an
+ * unknown sequence also gets {@code reset} and should reload the list.
+ */
+@Slf4j
+@Component
+public class AppointmentChangeFeed implements DisposableBean {
+
+    public static final String APPOINTMENT_EVENT = "appointment";
+    public static final String READY_EVENT = "ready";
+    public static final String RESET_EVENT = "reset";
+
+    /** Same roles that may read appointments through the REST API. */
+    static final Set<String> READ_AUTHORITIES = Set.of("ROLE_ADMIN", "ROLE_RECEPTIONIST", "ROLE_DOCTOR");
+
+    private final int historySize;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    // Guards sequence, history and the subscriber set so every subscriber sees changes in sequence order
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<AppointmentChangeMessage> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "appointment-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sequence;
+
+    public AppointmentChangeFeed(
+            @Value("${clinsys.feed.history-size:1000}") int historySize,
+            @Value("${clinsys.feed.subscriber-buffer:256}") int bufferSize,
+            @Value("${clinsys.feed.timeout:30m}") Duration timeout,
+            @Value("${clinsys.feed.heartbeat:15s}") Duration heartbeatInterval
+    ) {
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of changes visible to the caller.
+     * The first event is {@code ready}, carrying the current sequence as its id; it is followed by the
+     * missed changes when resuming, or by {@code reset} when they are no longer available.
+     *
+     * @param filter Which appointments the subscriber receives.
+     * @param lastSequence Sequence of the last change the client applied, or null for a fresh subscription.
+     */
+    public SseEmitter subscribe(Filter filter, Long lastSequence) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), filter, new ArrayBlockingQueue<>(bufferSize));
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        lock.lock();
+        try {
+            subscriber.queue.offer(new Frame(SseEmitter.event().name(READY_EVENT).id(Long.toString(sequence)).data(sequence), false));
+            if (lastSequence != null && lastSequence != sequence) {
+                replay(subscriber, lastSequence);
+            }
+            if (!subscriber.closing) {
+                subscribers.add(subscriber);
+            }
+        } finally {
+            lock.unlock();
+        }
+        drain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Runs after the change commits, so subscribers never see a change that was rolled back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(AppointmentChangedEvent event) {
+        List<Subscriber> notified = new ArrayList<>();
+        lock.lock();
+        try {
+            var message = AppointmentChangeMessage.builder()
+                    .sequence(++sequence)
+                    .type(event.type())
+                    .appointment(event.appointment())
+                    .build();
+            history.addLast(message);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.filter.test(message.getAppointment())) {
+                    enqueue(subscriber, message);
+                    notified.add(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        notified.forEach(this::drain);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private void replay(Subscriber subscriber, long lastSequence) {
+        AppointmentChangeMessage oldest = history.peekFirst();
+        // Ahead of this instance (e.g. issued before a restart) or older than the history
+        if (lastSequence > sequence || oldest == null || oldest.getSequence() > lastSequence + 1) {
+            reset(subscriber);
+            return;
+        }
+        for (AppointmentChangeMessage message : history) {
+            if (message.getSequence() > lastSequence && subscriber.filter.test(message.getAppointment())) {
+                enqueue(subscriber, message);
+                if (subscriber.closing) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, AppointmentChangeMessage message) {
+        var event = SseEmitter.event().name(APPOINTMENT_EVENT).id(Long.toString(message.getSequence())).data(message);
+        if (!subscriber.queue.offer(new Frame(event, false))) {
+            reset(subscriber);
+        }
+    }
+
+    /**
+     * Drops whatever the subscriber has not received yet and tells it to reload; the stream ends after that.
+     */
+    private void reset(Subscriber subscriber) {
+        log.warn("Appointment feed subscriber fell behind; sending reset");
+        subscribers.remove(subscriber);
+        subscriber.closing = true;
+        subscriber.queue.clear();
+        subscriber.queue.offer(new Frame(SseEmitter.event().name(RESET_EVENT).data(sequence), true));
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // Keeps proxies from closing idle streams; skipped when the buffer is already full
+            if (subscriber.queue.offer(new Frame(SseEmitter.event().comment("heartbeat"), false))) {
+                drain(subscriber);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> send(subscriber));
+        } catch (RuntimeException e) {
+            // Executor shut down
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            Frame frame;
+            while ((frame = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(frame.event());
+                if (frame.last()) {
+                    subscriber.emitter.complete();
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A frame may have been queued after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty()) {
+            drain(subscriber);
+        }
+    }
+
+    /**
+     * Which appointments a subscriber receives.
+     *
+     * @param authorities Authorities of the subscriber; only roles that can read appointments receive changes.
+     * @param doctorName Only appointments of this doctor, or null for any.
+     * @param specialty Only appointments of this specialty, or null for any.
+     */
+    public record Filter(Set<String> authorities, String doctorName, String specialty) {
+
+        public static Filter of(Collection<? extends GrantedAuthority> authorities, String doctorName, String specialty) {
+            Set<String> names = authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toUnmodifiableSet());
+            return new Filter(names, blankToNull(doctorName), blankToNull(specialty));
+        }
+
+        boolean test(AppointmentResponse appointment) {
+            return authorities.stream().anyMatch(READ_AUTHORITIES::contains)
+                    && (doctorName == null || Doctor.idOf(doctorName).equals(Doctor.idOf(appointment.getDoctorName())))
+                    && (specialty == null || Specialty.idOf(specialty).equals(Specialty.idOf(appointment.getSpecialty())));
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+
+    private record Frame(SseEmitter.SseEventBuilder event, boolean last) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Filter filter;
+        final BlockingQueue<Frame> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closing;
+
+        Subscriber(SseEmitter emitter, Filter filter, BlockingQueue<Frame> queue) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ClinSys.Os.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each outbox event as an {@link OutboxMessage} application event, so in-process consumers can
+ * use {@code @EventListener} with the same at-least-once guarantee as external sinks.
+ * Listeners run synchronously on the relay thread; an exception in a listener fails the batch and it is retried.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "clinsys.outbox.sinks.events.enabled", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher events;
+
+    @Override
+    public String name() {
+        return "events";
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> batch) {
+        batch.forEach(events::publishEvent);
+    }
+}
@@ -0,0 +1,56 @@
+package ClinSys.Os.service.outbox;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.OutboxEvent;
+import ClinSys.Os.domain.repository.OutboxEventRepository;
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes appointment changes to the outbox table.
+ * Must join the transaction that writes the appointment, so an event exists if and only if the change committed;
+ * {@link OutboxRelay} delivers it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentOutbox {
+
+    public static final String AGGREGATE_TYPE = "Appointment";
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ChangeType type, AppointmentResponse appointment) {
+        repository.save(toEvent(type, appointment, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(ChangeType type, List<AppointmentResponse> appointments) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAll(appointments.stream().map(a -> toEvent(type, a, now)).toList());
+    }
+
+    private OutboxEvent toEvent(ChangeType type, AppointmentResponse appointment, LocalDateTime now) {
+        try {
+            return OutboxEvent.builder()
+                    .aggregateType(AGGREGATE_TYPE)
+                    .aggregateId(appointment.getId())
+                    .type(type.name())
+                    .payload(objectMapper.writeValueAsString(appointment))
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize appointment " + appointment.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ClinSys.Os.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Appends outbox events as NDJSON to a local file, or logs their ids and types when no file is configured.
+ * Lets downstream jobs (billing, reminders) tail the file without a broker.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "clinsys.outbox.sinks.file.enabled", havingValue = "true", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${clinsys.outbox.sinks.file.path:}") String path, ObjectMapper objectMapper) {
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> batch) throws IOException {
+        if (path == null) {
+            for (OutboxMessage message : batch) {
+                // Payloads hold patient names: they are only logged at debug level
+                log.info("Outbox event {} {} {} {}", message.id(), message.aggregateType(), message.aggregateId(), message.type());
+                log.debug("Outbox event {} payload {}", message.id(), message.payload());
+            }
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (OutboxMessage message : batch) {
+            lines.append(objectMapper.writeValueAsString(message)).append('\n');
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // The batch is marked as published right after this returns, so it must be on disk first
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ClinSys.Os.service.outbox;
+
+import ClinSys.Os.domain.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An outbox event as handed to {@link OutboxSink}s.
+ * Delivery is at-least-once: the same id may arrive more than once, so consumers should deduplicate by id.
+ *
+ * @param id Unique, increasing id of the event.
+ * @param aggregateType Kind of entity that changed (e.g. {@code Appointment}).
+ * @param aggregateId Id of the entity that changed.
+ * @param type What happened (e.g. {@code CREATED}, {@code UPDATED}, {@code DELETED}).
+ * @param payload JSON state of the entity after the change.
+ * @param createdAt When the change was committed.
+ * @param attempt Delivery attempt, starting at 1.
+ */
+public record OutboxMessage(long id, String aggregateType, UUID aggregateId, String type, String payload,
+                            LocalDateTime createdAt, int attempt) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getType(),
+                event.getPayload(), event.getCreatedAt(), event.getAttempts() + 1);
+    }
+}
@@ -0,0 +1,141 @@
+package ClinSys.Os.service.outbox;
+
+import ClinSys.Os.domain.model.OutboxEvent;
+import ClinSys.Os.domain.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches and hands the events to every {@link OutboxSink}.
+ * Each batch is locked, delivered and marked as published in one transaction, so a crash before the commit only
+ * causes a redelivery (at-least-once). A failed batch is retried with exponential backoff, and the other
+ * pending events keep flowing meanwhile. Published events are deleted after {@code clinsys.outbox.retention}.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository repository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Duration retention;
+    private final Counter delivered;
+    private final Counter failed;
+
+    public OutboxRelay(
+            OutboxEventRepository repository,
+            List<OutboxSink> sinks,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${clinsys.outbox.relay.enabled:true}") boolean enabled,
+            @Value("${clinsys.outbox.batch-size:100}") int batchSize,
+            @Value("${clinsys.outbox.retry-delay:1s}") Duration retryDelay,
+            @Value("${clinsys.outbox.max-retry-delay:5m}") Duration maxRetryDelay,
+            @Value("${clinsys.outbox.retention:7d}") Duration retention
+    ) {
+        this.repository = repository;
+        this.sinks = List.copyOf(sinks);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.retention = retention;
+        this.delivered = Counter.builder("clinsys.outbox.relayed").tag("outcome", "delivered")
+                .description("Outbox events handed to the sinks").register(meterRegistry);
+        this.failed = Counter.builder("clinsys.outbox.relayed").tag("outcome", "failed")
+                .description("Outbox events handed to the sinks").register(meterRegistry);
+        log.info("Outbox relay {} with sinks {}", enabled ? "enabled" : "disabled", this.sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${clinsys.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (enabled) {
+            relayPending();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clinsys.outbox.cleanup-interval:PT1H}")
+    public void cleanup() {
+        if (enabled) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    repository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+            log.debug("Deleted {} published outbox events", deleted);
+        }
+    }
+
+    /**
+     * Relays batches until no event is due or a batch fails.
+     *
+     * @return Number of events delivered.
+     */
+    public int relayPending() {
+        int total = 0;
+        while (true) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch());
+            if (relayed == null || relayed < 0) {
+                return total;
+            }
+            total += relayed;
+            if (relayed < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * @return Number of events delivered, or -1 if the batch failed.
+     */
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = repository.lockPending(now, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> messages = batch.stream().map(OutboxMessage::of).toList();
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(messages);
+            } catch (Exception e) {
+                log.warn("Outbox sink {} failed for events {}..{}: {}", sink.name(),
+                        messages.get(0).id(), messages.get(messages.size() - 1).id(), e.toString());
+                for (OutboxEvent event : batch) {
+                    event.setAttempts(event.getAttempts() + 1);
+                    event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                    event.setLastError(truncate(sink.name() + ": " + e));
+                }
+                failed.increment(batch.size());
+                return -1;
+            }
+        }
+        for (OutboxEvent event : batch) {
+            event.setPublishedAt(now);
+        }
+        delivered.increment(batch.size());
+        return batch.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
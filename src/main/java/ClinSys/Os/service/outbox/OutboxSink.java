@@ -0,0 +1,24 @@
+package ClinSys.Os.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events. Every bean implementing this interface receives each event;
+ * add a bean to plug in a new consumer (e.g. a message broker).
+ * A batch counts as delivered only when every sink returns normally; if any sink throws, the whole batch is
+ * retried later, so sinks may see the same event again and should be idempotent.
+ */
+public interface OutboxSink {
+
+    /**
+     * @return Name used in logs and metrics.
+     */
+    String name();
+
+    /**
+     * Delivers a batch of events, in id order. Must not return before the events are durably accepted.
+     *
+     * @throws Exception if the batch could not be delivered; it will be retried with backoff.
+     */
+    void deliver(List<OutboxMessage> batch) throws Exception;
+}
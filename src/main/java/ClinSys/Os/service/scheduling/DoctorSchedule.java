@@ -0,0 +1,134 @@
+package ClinSys.Os.service.scheduling;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Booked slots of a single doctor.
+ * Slot starts are kept in a sorted map for exact overlap checks, and each day has an occupancy
+ * bitset (one bit per {@code granularity}) used to find free slots without walking appointments.
+ * Not thread-safe: every access is guarded by the doctor's stripe lock in {@link SchedulingEngine}.
+ */
+class DoctorSchedule {
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final Duration duration;
+    private final int granularitySeconds;
+    private final int bitsPerDay;
+    private final TreeMap<LocalDateTime, UUID> starts = new TreeMap<>();
+    private final Map<LocalDate, BitSet> occupancy = new HashMap<>();
+
+    DoctorSchedule(Duration duration, Duration granularity) {
+        this.duration = duration;
+        this.granularitySeconds = (int) granularity.toSeconds();
+        this.bitsPerDay = SECONDS_PER_DAY / granularitySeconds;
+    }
+
+    boolean overlaps(LocalDateTime start) {
+        Map.Entry<LocalDateTime, UUID> before = starts.floorEntry(start);
+        if (before != null && before.getKey().plus(duration).isAfter(start)) {
+            return true;
+        }
+        Map.Entry<LocalDateTime, UUID> after = starts.ceilingEntry(start);
+        return after != null && after.getKey().isBefore(start.plus(duration));
+    }
+
+    void book(LocalDateTime start, UUID id) {
+        starts.put(start, id);
+        mark(start, true);
+    }
+
+    /**
+     * @return true if the slot was held by the given appointment and has been released.
+     */
+    boolean release(LocalDateTime start, UUID id) {
+        if (!starts.remove(start, id)) {
+            return false;
+        }
+        mark(start, false);
+        // Neighbours may share a boundary bit with the released slot when starts are not aligned
+        Map.Entry<LocalDateTime, UUID> lower = starts.lowerEntry(start);
+        if (lower != null) {
+            mark(lower.getKey(), true);
+        }
+        Map.Entry<LocalDateTime, UUID> higher = starts.higherEntry(start);
+        if (higher != null) {
+            mark(higher.getKey(), true);
+        }
+        return true;
+    }
+
+    /**
+     * Drops slots that ended before the given instant so the schedule only holds what can still conflict.
+     */
+    void prune(LocalDateTime before) {
+        starts.headMap(before.minus(duration)).clear();
+        occupancy.keySet().removeIf(day -> day.isBefore(before.toLocalDate()));
+    }
+
+    /**
+     * Finds consecutive free slots on one day, aligned to the opening time.
+     *
+     * @param day The day to search.
+     * @param open Opening time (inclusive).
+     * @param close Closing time (exclusive).
+     * @param slotLength Length of each returned slot.
+     * @return Start times of the free slots, in order.
+     */
+    List<LocalDateTime> freeStarts(LocalDate day, LocalTime open, LocalTime close, Duration slotLength) {
+        int stepBits = ceilDiv((int) slotLength.toSeconds(), granularitySeconds);
+        // A booking always blocks the full appointment duration, so the free run must cover it
+        int requiredBits = Math.max(stepBits, ceilDiv((int) duration.toSeconds(), granularitySeconds));
+        int closeBit = close.toSecondOfDay() / granularitySeconds;
+        BitSet bits = occupancy.get(day);
+
+        List<LocalDateTime> result = new ArrayList<>();
+        int i = ceilDiv(open.toSecondOfDay(), granularitySeconds);
+        while (i + requiredBits <= closeBit) {
+            int busy = bits == null ? -1 : bits.nextSetBit(i);
+            if (busy < 0 || busy >= i + requiredBits) {
+                result.add(day.atStartOfDay().plusSeconds((long) i * granularitySeconds));
+                i += stepBits;
+            } else {
+                i = bits.nextClearBit(busy);
+            }
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return starts.isEmpty();
+    }
+
+    private void mark(LocalDateTime start, boolean occupied) {
+        LocalDateTime end = start.plus(duration);
+        LocalDateTime cursor = start;
+        while (cursor.isBefore(end)) {
+            LocalDate day = cursor.toLocalDate();
+            LocalDateTime nextDay = day.plusDays(1).atStartOfDay();
+            LocalDateTime segmentEnd = end.isBefore(nextDay) ? end : nextDay;
+            int fromBit = cursor.toLocalTime().toSecondOfDay() / granularitySeconds;
+            int toBit = segmentEnd.equals(nextDay) ? bitsPerDay : ceilDiv(segmentEnd.toLocalTime().toSecondOfDay(), granularitySeconds);
+            if (occupied) {
+                occupancy.computeIfAbsent(day, d -> new BitSet(bitsPerDay)).set(fromBit, toBit);
+            } else if (occupancy.containsKey(day)) {
+                occupancy.get(day).clear(fromBit, toBit);
+            }
+            cursor = segmentEnd;
+        }
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,75 @@
+package ClinSys.Os.service.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ensures the PostgreSQL exclusion constraint that forbids overlapping appointments for the same doctor.
+ * The constraint name carries the appointment duration, so changing
+ * {@code clinsys.scheduling.appointment-duration} replaces it on the next start.
+ * PostgreSQL cannot enforce it across the partitions of a partitioned {@code appointments} table, so there
+ * each partition gets its own (overlaps spanning midnight at the turn of a month are left to the engine).
+ * Other databases (e.g. H2 in tests) rely on {@link SchedulingEngine} alone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OverlapConstraintInitializer implements SmartInitializingSingleton {
+
+    private static final String TABLE = "appointments";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulingEngine schedulingEngine;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'appointments'::regclass",
+                String.class);
+        if (partitions.isEmpty()) {
+            ensure(TABLE);
+        } else {
+            partitions.forEach(this::ensure);
+        }
+    }
+
+    /**
+     * Ensures the constraint on {@code appointments} or on one of its partitions (PostgreSQL only).
+     */
+    public void ensure(String table) {
+        long minutes = schedulingEngine.getAppointmentDuration().toMinutes();
+        // Constraint names double as index names, which must be unique across tables
+        String name = SchedulingEngine.OVERLAP_CONSTRAINT_PREFIX + "_" + minutes + "m" + table.substring(TABLE.length());
+        try {
+            List<String> existing = jdbcTemplate.queryForList(
+                    "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND conname LIKE ?",
+                    String.class, table, SchedulingEngine.OVERLAP_CONSTRAINT_PREFIX + "%");
+            for (String constraint : existing) {
+                if (!constraint.equals(name)) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + constraint);
+                }
+            }
+            if (!existing.contains(name)) {
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+                jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name
+                        + " EXCLUDE USING gist (doctor_id WITH =, tsrange(date_time, date_time + interval '" + minutes + " minutes') WITH &&)"
+                        + " WHERE (status <> 'CANCELED')");
+                log.info("Created exclusion constraint {}", name);
+            }
+        } catch (DataAccessException e) {
+            // Typically overlapping rows booked before the constraint existed; the in-memory index still guards new bookings
+            log.warn("Could not ensure exclusion constraint {}: {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+}
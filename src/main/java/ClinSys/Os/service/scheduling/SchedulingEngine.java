@@ -0,0 +1,297 @@
+package ClinSys.Os.service.scheduling;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.Specialty;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.service.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of booked slots per doctor, used to reject overlapping appointments and to find free slots.
+ * Every appointment occupies {@code [dateTime, dateTime + appointment-duration)}. Each doctor has a
+ * {@link DoctorSchedule}, so an overlap check is two O(log n) lookups and a free-slot search is a
+ * bitset scan. Access to a doctor's schedule is serialized by a striped lock; the PostgreSQL exclusion
+ * constraint created by {@link OverlapConstraintInitializer} is the final guard across application instances.
+ */
+@Slf4j
+@Component
+public class SchedulingEngine implements SmartInitializingSingleton {
+
+    public static final String OVERLAP_CONSTRAINT_PREFIX = "appointments_doctor_no_overlap";
+    public static final String OVERLAP_MESSAGE = "Doctor already has an appointment at this time";
+
+    private static final UUID PENDING = new UUID(0, 0);
+
+    private final AppointmentRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration appointmentDuration;
+    private final Duration slotGranularity;
+    private final ReentrantLock[] stripes;
+    // Keyed by doctor and specialty ids, so every spelling of a name finds the same entry
+    private final ConcurrentMap<UUID, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Set<String>> doctorsBySpecialty = new ConcurrentHashMap<>();
+
+    public SchedulingEngine(
+            AppointmentRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${clinsys.scheduling.appointment-duration:30m}") Duration appointmentDuration,
+            @Value("${clinsys.scheduling.slot-granularity:15m}") Duration slotGranularity,
+            @Value("${clinsys.scheduling.lock-stripes:64}") int lockStripes
+    ) {
+        if (slotGranularity.isZero() || Duration.ofDays(1).toSeconds() % slotGranularity.toSeconds() != 0) {
+            throw new IllegalArgumentException("clinsys.scheduling.slot-granularity must divide a day evenly");
+        }
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.appointmentDuration = appointmentDuration;
+        this.slotGranularity = slotGranularity;
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(lockStripes, 1) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Rebuilds the index from the appointments that can still conflict with new bookings,
+     * and the specialty directory from every doctor seen so far.
+     */
+    public void load() {
+        LocalDateTime from = LocalDateTime.now().minus(appointmentDuration);
+        schedules.clear();
+        doctorsBySpecialty.clear();
+        Long loaded = readOnlyTransaction.execute(status -> {
+            repository.findDoctorSpecialties().forEach(d -> registerDoctor(d.getDoctorName(), d.getSpecialty()));
+            long count = 0;
+            try (Stream<Appointment> rows = repository.streamActiveFrom(from)) {
+                for (var it = rows.iterator(); it.hasNext(); count++) {
+                    Appointment appointment = it.next();
+                    scheduleOf(appointment.getDoctor().getId()).book(appointment.getDateTime(), appointment.getId());
+                }
+            }
+            return count;
+        });
+        log.info("Scheduling index loaded with {} active appointments for {} doctors", loaded, schedules.size());
+    }
+
+    public Duration getAppointmentDuration() {
+        return appointmentDuration;
+    }
+
+    /**
+     * Moves an appointment from one slot to another and persists it while holding the locks of both doctors.
+     * If the new slot overlaps another appointment, or the write fails, the index is left untouched.
+     *
+     * @param previous The slot currently held by the appointment, or null for a new or canceled one.
+     * @param next The slot the appointment will hold, or null if it no longer occupies one.
+     * @param writer Persists the appointment and returns the saved entity.
+     * @return The saved appointment.
+     * @throws BusinessException if the new slot overlaps another appointment of the same doctor.
+     */
+    public Appointment apply(Slot previous, Slot next, Supplier<Appointment> writer) {
+        // Always acquire stripes in index order so concurrent moves between two doctors cannot deadlock
+        int a = stripeIndex(previous != null ? previous : next);
+        int b = stripeIndex(next != null ? next : previous);
+        ReentrantLock first = a < 0 ? null : stripes[Math.min(a, b)];
+        ReentrantLock second = a < 0 || a == b ? null : stripes[Math.max(a, b)];
+        lock(first);
+        lock(second);
+        try {
+            boolean removed = previous != null && scheduleOf(previous.doctorId()).release(previous.start(), previous.id());
+            try {
+                if (next != null && scheduleOf(next.doctorId()).overlaps(next.start())) {
+                    throw new BusinessException(OVERLAP_MESSAGE);
+                }
+                Appointment saved = writer.get();
+                if (next != null) {
+                    DoctorSchedule schedule = scheduleOf(next.doctorId());
+                    schedule.book(next.start(), saved.getId());
+                    schedule.prune(LocalDateTime.now());
+                    registerDoctor(saved.getDoctorName(), saved.getSpecialtyName());
+                }
+                return saved;
+            } catch (RuntimeException e) {
+                if (removed) {
+                    scheduleOf(previous.doctorId()).book(previous.start(), previous.id());
+                }
+                if (e instanceof DataIntegrityViolationException && isOverlapViolation(e)) {
+                    throw new BusinessException(OVERLAP_MESSAGE);
+                }
+                throw e;
+            }
+        } finally {
+            unlock(second);
+            unlock(first);
+        }
+    }
+
+    /**
+     * Books several new appointments at once. Candidates that overlap an existing booking, or an earlier
+     * candidate of the same batch, are skipped; the rest are persisted together by the writer while the
+     * locks of every involved doctor are held.
+     *
+     * @param candidates New appointments (not yet saved).
+     * @param writer Persists the accepted appointments in a single unit of work.
+     * @return The candidates rejected because of an overlap.
+     * @throws BusinessException if the writer hits the database overlap constraint.
+     */
+    public Set<Appointment> bookAll(List<Appointment> candidates, Consumer<List<Appointment>> writer) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        candidates.forEach(candidate -> indexes.add(stripeIndex(candidate.getDoctor().getId())));
+        indexes.forEach(i -> stripes[i].lock());
+        try {
+            Set<Appointment> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Appointment> accepted = new ArrayList<>();
+            for (Appointment candidate : candidates) {
+                DoctorSchedule schedule = scheduleOf(candidate.getDoctor().getId());
+                if (schedule.overlaps(candidate.getDateTime())) {
+                    rejected.add(candidate);
+                } else {
+                    schedule.book(candidate.getDateTime(), PENDING);
+                    accepted.add(candidate);
+                }
+            }
+            try {
+                writer.accept(accepted);
+            } catch (RuntimeException e) {
+                accepted.forEach(a -> scheduleOf(a.getDoctor().getId()).release(a.getDateTime(), PENDING));
+                if (e instanceof DataIntegrityViolationException && isOverlapViolation(e)) {
+                    throw new BusinessException(OVERLAP_MESSAGE);
+                }
+                throw e;
+            }
+            for (Appointment saved : accepted) {
+                scheduleOf(saved.getDoctor().getId()).book(saved.getDateTime(), saved.getId());
+                registerDoctor(saved.getDoctorName(), saved.getSpecialtyName());
+            }
+            return rejected;
+        } finally {
+            indexes.descendingSet().forEach(i -> stripes[i].unlock());
+        }
+    }
+
+    /**
+     * Returns whether the doctor is free for a full appointment starting at the given time.
+     */
+    public boolean isAvailable(String doctorName, LocalDateTime start) {
+        UUID doctorId = Doctor.idOf(doctorName);
+        ReentrantLock lock = stripes[stripeIndex(doctorId)];
+        lock.lock();
+        try {
+            return !scheduleOf(doctorId).overlaps(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds free slots of a doctor on one day, within the given opening hours.
+     *
+     * @return Start times of the free slots, in order.
+     */
+    public List<LocalDateTime> freeSlots(String doctorName, LocalDate day, LocalTime open, LocalTime close, Duration slotLength) {
+        UUID doctorId = Doctor.idOf(doctorName);
+        ReentrantLock lock = stripes[stripeIndex(doctorId)];
+        lock.lock();
+        try {
+            DoctorSchedule schedule = schedules.get(doctorId);
+            return schedule != null
+                    ? schedule.freeStarts(day, open, close, slotLength)
+                    : new DoctorSchedule(appointmentDuration, slotGranularity).freeStarts(day, open, close, slotLength);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Names of the doctors who have had at least one appointment in the given specialty.
+     */
+    public Set<String> doctorsWithSpecialty(String specialty) {
+        return Set.copyOf(doctorsBySpecialty.getOrDefault(Specialty.idOf(specialty), Set.of()));
+    }
+
+    private void registerDoctor(String doctorName, String specialty) {
+        doctorsBySpecialty.computeIfAbsent(Specialty.idOf(specialty), s -> ConcurrentHashMap.newKeySet()).add(doctorName);
+    }
+
+    private DoctorSchedule scheduleOf(UUID doctorId) {
+        return schedules.computeIfAbsent(doctorId, id -> new DoctorSchedule(appointmentDuration, slotGranularity));
+    }
+
+    private int stripeIndex(Slot slot) {
+        return slot == null ? -1 : stripeIndex(slot.doctorId());
+    }
+
+    private int stripeIndex(UUID doctorId) {
+        int hash = doctorId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static void lock(ReentrantLock lock) {
+        if (lock != null) {
+            lock.lock();
+        }
+    }
+
+    private static void unlock(ReentrantLock lock) {
+        if (lock != null) {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isOverlapViolation(Exception e) {
+        Throwable cause = ((DataIntegrityViolationException) e).getMostSpecificCause();
+        return cause.getMessage() != null && cause.getMessage().contains(OVERLAP_CONSTRAINT_PREFIX);
+    }
+
+    /**
+     * Slot held by an appointment: a doctor and a start time.
+     *
+     * @param id The appointment holding the slot (null before it is first saved).
+     */
+    public record Slot(UUID id, UUID doctorId, LocalDateTime start) {
+
+        /**
+         * @return The slot held by the appointment, or null if it does not hold one (e.g. canceled).
+         */
+        public static Slot of(Appointment appointment) {
+            if (appointment.getStatus() == AppointmentStatus.CANCELED
+                    || appointment.getDoctor() == null
+                    || appointment.getDateTime() == null) {
+                return null;
+            }
+            return new Slot(appointment.getId(), appointment.getDoctor().getId(), appointment.getDateTime());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+-- Schema as created by Hibernate's ddl-auto=update before migrations were introduced.
+-- Databases that already have these tables are baselined at this version instead of running it.
+
+CREATE TABLE users (
+    id       uuid         NOT NULL PRIMARY KEY,
+    username varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    role     varchar(255) NOT NULL CHECK (role IN ('ADMIN', 'RECEPTIONIST', 'DOCTOR'))
+);
+
+CREATE TABLE appointments (
+    id           uuid         NOT NULL PRIMARY KEY,
+    patient_name varchar(255) NOT NULL,
+    doctor_name  varchar(255) NOT NULL,
+    specialty    varchar(255) NOT NULL,
+    date_time    timestamp(6) NOT NULL,
+    status       varchar(255) NOT NULL CHECK (status IN ('SCHEDULED', 'IN_PROGRESS', 'COMPLETED', 'CANCELED')),
+    version      bigint       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE outbox_events (
+    id              bigint        NOT NULL PRIMARY KEY,
+    aggregate_type  varchar(255)  NOT NULL,
+    aggregate_id    uuid          NOT NULL,
+    type            varchar(255)  NOT NULL,
+    payload         varchar(4000) NOT NULL,
+    created_at      timestamp(6)  NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    published_at    timestamp(6),
+    attempts        integer       NOT NULL,
+    last_error      varchar(1000)
+);
+
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,36 @@
+-- Indexes for the hot queries. Indexes left by earlier Hibernate schema updates with the same name
+-- have the same definition, so IF NOT EXISTS keeps them; the ones that changed are dropped first.
+
+-- Listing and keyset pagination, unfiltered and per filter (see AppointmentSpecifications)
+CREATE INDEX IF NOT EXISTS idx_appointments_date_time_id ON appointments (date_time, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_id_date_time_id ON appointments (doctor_id, date_time, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_specialty_id_date_time_id ON appointments (specialty_id, date_time, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_status_date_time_id ON appointments (status, date_time, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_id_date_time ON appointments (patient_id, date_time);
+
+-- Statistics GROUP BY queries, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_appointments_stats_refs ON appointments (date_time, doctor_id, specialty_id, status);
+
+-- The scheduling index is loaded at startup from the appointments that still hold a slot
+CREATE INDEX IF NOT EXISTS idx_appointments_active_date_time ON appointments (date_time) WHERE status <> 'CANCELED';
+
+-- The relay only reads pending events and the cleanup only published ones: partial indexes
+-- stay small however many delivered events are retained
+DROP INDEX IF EXISTS idx_outbox_events_pending;
+CREATE INDEX idx_outbox_events_pending ON outbox_events (next_attempt_at, id) WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at ON outbox_events (published_at) WHERE published_at IS NOT NULL;
+
+-- Username lookups (login, token verification): one explicit unique index replaces the
+-- generated unique constraint, whose name differed between databases
+DO $$
+DECLARE
+    c record;
+BEGIN
+    FOR c IN SELECT conname FROM pg_constraint
+             WHERE conrelid = 'users'::regclass AND contype = 'u'
+               AND conkey = ARRAY[(SELECT attnum FROM pg_attribute WHERE attrelid = 'users'::regclass AND attname = 'username')] LOOP
+        EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', c.conname);
+    END LOOP;
+END
+$$;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_username ON users (username);
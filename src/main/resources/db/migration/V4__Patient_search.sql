@@ -0,0 +1,5 @@
+-- Patient search (PatientRepository): trigram GIN index for typo-tolerant and substring matches,
+-- and a btree on the lower-cased name for the prefix matches of queries too short for trigrams
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_patients_name_trgm ON patients USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_name_prefix ON patients (lower(name) text_pattern_ops);
@@ -0,0 +1,75 @@
+-- Range-partitions appointments by month of date_time, so queries bounded by date_time only touch the
+-- months they ask for, and old months can be archived and dropped without touching the current ones.
+
+-- Creates the partition for the month containing the given day unless it exists, moving any rows of that
+-- month out of the default partition first. Called here and by AppointmentPartitionManager.
+CREATE OR REPLACE FUNCTION ensure_appointment_partition(month_day date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    first_day date := date_trunc('month', month_day)::date;
+    next_day  date := (date_trunc('month', month_day) + interval '1 month')::date;
+    partition_name text := 'appointments_' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+    -- Keeps new rows of this month out of the default partition until the new one is attached
+    LOCK TABLE appointments_default IN ACCESS EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM appointments_default WHERE date_time >= %L AND date_time < %L RETURNING *)'
+                   ' INSERT INTO %I SELECT * FROM moved', first_day, next_day, partition_name);
+    -- Attaching creates the partition's copies of the parent's indexes and foreign keys
+    EXECUTE format('ALTER TABLE appointments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', partition_name, first_day, next_day);
+    RETURN partition_name;
+END
+$$;
+
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+
+CREATE TABLE appointments (LIKE appointments_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (date_time);
+-- Catches appointments beyond the months created ahead, so booking far ahead never fails
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+DO $$
+DECLARE
+    first_month date := date_trunc('month', coalesce((SELECT min(date_time) FROM appointments_unpartitioned), now()));
+BEGIN
+    WHILE first_month <= date_trunc('month', now()) + interval '12 months' LOOP
+        PERFORM ensure_appointment_partition(first_month);
+        first_month := first_month + interval '1 month';
+    END LOOP;
+END
+$$;
+
+INSERT INTO appointments SELECT * FROM appointments_unpartitioned;
+DROP TABLE appointments_unpartitioned;
+
+-- Unique constraints of a partitioned table must include the partition key; ids are still unique on their own
+ALTER TABLE appointments ADD PRIMARY KEY (id, date_time);
+ALTER TABLE appointments ADD CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES patients (id);
+ALTER TABLE appointments ADD CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id);
+ALTER TABLE appointments ADD CONSTRAINT fk_appointments_specialty FOREIGN KEY (specialty_id) REFERENCES specialties (id);
+
+-- Same indexes as migration 3, now created on every partition
+CREATE INDEX idx_appointments_date_time_id ON appointments (date_time, id);
+CREATE INDEX idx_appointments_doctor_id_date_time_id ON appointments (doctor_id, date_time, id);
+CREATE INDEX idx_appointments_specialty_id_date_time_id ON appointments (specialty_id, date_time, id);
+CREATE INDEX idx_appointments_status_date_time_id ON appointments (status, date_time, id);
+CREATE INDEX idx_appointments_patient_id_date_time ON appointments (patient_id, date_time);
+CREATE INDEX idx_appointments_stats_refs ON appointments (date_time, doctor_id, specialty_id, status);
+CREATE INDEX idx_appointments_active_date_time ON appointments (date_time) WHERE status <> 'CANCELED';
+
+-- Completed and canceled appointments of archived months (see AppointmentArchiver). Rows are only appended,
+-- in date order: pages are packed full and a BRIN index on date_time is a few pages however large it grows.
+CREATE TABLE appointments_archive (
+    id           uuid         NOT NULL PRIMARY KEY,
+    patient_id   uuid         NOT NULL CONSTRAINT fk_appointments_archive_patient REFERENCES patients (id),
+    doctor_id    uuid         NOT NULL CONSTRAINT fk_appointments_archive_doctor REFERENCES doctors (id),
+    specialty_id uuid         NOT NULL CONSTRAINT fk_appointments_archive_specialty REFERENCES specialties (id),
+    date_time    timestamp(6) NOT NULL,
+    status       varchar(255) NOT NULL CHECK (status IN ('SCHEDULED', 'IN_PROGRESS', 'COMPLETED', 'CANCELED')),
+    version      bigint       NOT NULL,
+    archived_at  timestamp(6) NOT NULL
+) WITH (fillfactor = 100);
+CREATE INDEX idx_appointments_archive_date_time ON appointments_archive USING brin (date_time);
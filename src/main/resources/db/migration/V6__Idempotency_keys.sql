@@ -0,0 +1,9 @@
+-- Requests made with an Idempotency-Key, when the persistent store is enabled (see IdempotencyService)
+CREATE TABLE idempotency_keys (
+    id           varchar(64)   NOT NULL PRIMARY KEY,
+    request_hash varchar(64)   NOT NULL,
+    response     varchar(4000),
+    created_at   timestamp(6)  NOT NULL
+);
+-- Expired records are deleted by creation time
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
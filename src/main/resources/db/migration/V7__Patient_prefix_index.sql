@@ -0,0 +1,5 @@
+-- Prefix search (PatientRepository.searchByPrefixIndexed) filters and orders on lower(name) in the C collation:
+-- one btree then serves both the LIKE and the ORDER BY, and the LIMIT stops after the first matches instead of
+-- sorting every patient whose name starts with a one- or two-letter prefix
+DROP INDEX IF EXISTS idx_patients_name_prefix;
+CREATE INDEX idx_patients_name_prefix ON patients (lower(name) COLLATE "C", id);
@@ -0,0 +1,3 @@
+-- BCrypt work factor for one user, overriding the one of their role (see BoundedPasswordEncoder).
+-- Null uses the role's; a changed value is applied by rehashing the password at the user's next login.
+ALTER TABLE users ADD COLUMN password_strength integer CHECK (password_strength BETWEEN 4 AND 31);
@@ -0,0 +1,3 @@
+-- Every instance follows the appointment changes written by the others from the outbox, in
+-- (created_at, id) order (see DoctorAgendaProjection): a keyset range scan instead of reading the table
+CREATE INDEX idx_outbox_events_created_at_id ON outbox_events (created_at, id);
@@ -0,0 +1,109 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.api.dto.AppointmentStatsResponse;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.ArchivedAppointment;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.ArchivedAppointmentRepository;
+import ClinSys.Os.service.AgendaService;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.AppointmentStatsService;
+import ClinSys.Os.service.archive.AppointmentArchiver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AppointmentArchiveIntegrationTest {
+
+    @Autowired
+    private AppointmentRepository appointments;
+
+    @Autowired
+    private ArchivedAppointmentRepository archive;
+
+    @Autowired
+    private AppointmentArchiver archiver;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AgendaService agendaService;
+
+    @Autowired
+    private AppointmentStatsService statsService;
+
+    private Appointment save(LocalDateTime dateTime, AppointmentStatus status) {
+        return appointments.save(Appointment.builder()
+                .patientName("Patient Archive")
+                .doctorName("Dr. Archive")
+                .specialtyName("Geriatrics")
+                .dateTime(dateTime)
+                .status(status)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should move completed and canceled appointments of old months to the archive")
+    void shouldArchiveOldMonths() {
+        LocalDateTime march = LocalDateTime.of(1999, 3, 10, 9, 0);
+        Appointment completed = save(march, AppointmentStatus.COMPLETED);
+        Appointment canceled = save(march.plusDays(1), AppointmentStatus.CANCELED);
+        Appointment scheduled = save(march.plusDays(2), AppointmentStatus.SCHEDULED);
+        Appointment nextMonth = save(march.plusMonths(1), AppointmentStatus.COMPLETED);
+        // Loaded into the second-level cache
+        assertThat(appointments.findById(completed.getId())).isPresent();
+
+        int archived = archiver.archiveBefore(YearMonth.of(1999, 4));
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(appointments.findById(completed.getId())).isEmpty();
+        assertThat(appointments.findById(canceled.getId())).isEmpty();
+        assertThat(appointments.findById(scheduled.getId())).isPresent();
+        assertThat(appointments.findById(nextMonth.getId())).isPresent();
+        ArchivedAppointment row = archive.findById(completed.getId()).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo(AppointmentStatus.COMPLETED);
+        assertThat(row.getDateTime()).isEqualTo(march);
+        assertThat(row.getArchivedAt()).isNotNull();
+        assertThat(archive.existsById(canceled.getId())).isTrue();
+
+        // Nothing left to move: running again is a no-op
+        assertThat(archiver.archiveBefore(YearMonth.of(1999, 4))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep serving archived appointments by id, in agendas and in statistics")
+    void shouldReadArchivedAppointments() {
+        LocalDateTime june = LocalDateTime.of(1998, 6, 15, 9, 0);
+        Appointment completed = save(june, AppointmentStatus.COMPLETED);
+        Appointment scheduled = save(june.plusHours(1), AppointmentStatus.SCHEDULED);
+        save(june.plusDays(1), AppointmentStatus.CANCELED);
+        assertThat(archiver.archiveBefore(YearMonth.of(1998, 7))).isEqualTo(2);
+
+        AppointmentResponse found = appointmentService.findById(completed.getId());
+        assertThat(found.getPatientName()).isEqualTo("Patient Archive");
+        assertThat(found.getDoctorName()).isEqualTo("Dr. Archive");
+        assertThat(found.getStatus()).isEqualTo(AppointmentStatus.COMPLETED);
+
+        // Archived and live appointments of the same day, in order
+        assertThat(agendaService.findAgenda("Dr. Archive", june.toLocalDate()))
+                .extracting(AppointmentResponse::getId)
+                .containsExactly(completed.getId(), scheduled.getId());
+
+        var stats = statsService.getStats("status", LocalDate.of(1998, 6, 1), LocalDate.of(1998, 6, 30), "Dr. Archive", null);
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(stats.getByStatus()).containsEntry(AppointmentStatus.CANCELED, 1L);
+        var days = statsService.getStats("day", LocalDate.of(1998, 6, 15), LocalDate.of(1998, 6, 16), null, null);
+        assertThat(days.getBuckets()).extracting(AppointmentStatsResponse.Bucket::getTotal).containsExactly(2L, 1L);
+    }
+}
@@ -0,0 +1,113 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.service.AppointmentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+// The feed's sender writes to the response while MockMvc would still be printing its headers
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class AppointmentChangeFeedIntegrationTest {
+
+    private static final Pattern READY = Pattern.compile("event:ready\\nid:(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentService service;
+
+    private AppointmentResponse create(String doctor, int daysAhead) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setPatientName("Patient");
+        request.setDoctorName(doctor);
+        request.setSpecialty("Neurology");
+        request.setDateTime(LocalDateTime.now().plusDays(daysAhead).truncatedTo(ChronoUnit.HOURS));
+        return service.create(request);
+    }
+
+    private MockHttpServletResponse subscribe(String query, String lastEventId) throws Exception {
+        var builder = get("/api/appointments/stream" + query);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should push created appointments of the subscribed doctor only")
+    void shouldPushFilteredChanges() throws Exception {
+        MockHttpServletResponse response = subscribe("?doctorName=Dr. Feed", null);
+        awaitContent(response, "event:ready");
+
+        create("Dr. Other Feed", 60);
+        AppointmentResponse created = create("Dr. Feed", 60);
+
+        String content = awaitContent(response, created.getId().toString());
+        assertThat(content).contains("event:appointment", "\"type\":\"CREATED\"", created.getId().toString());
+        assertThat(content).doesNotContain("Dr. Other Feed");
+    }
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should replay the changes missed since Last-Event-ID")
+    void shouldResumeFromLastEventId() throws Exception {
+        String ready = awaitContent(subscribe("", null), "event:ready");
+        Matcher matcher = READY.matcher(ready);
+        assertThat(matcher.find()).isTrue();
+        String lastEventId = matcher.group(1);
+
+        AppointmentResponse missed = create("Dr. Resume", 61);
+
+        String content = awaitContent(subscribe("?doctorName=Dr. Resume", lastEventId), missed.getId().toString());
+        assertThat(content).contains("event:appointment", missed.getId().toString());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should send reset when resuming from an unknown sequence")
+    void shouldResetUnknownSequence() throws Exception {
+        String content = awaitContent(subscribe("", "999999999"), "event:reset");
+        assertThat(content).contains("event:reset");
+    }
+
+    @Test
+    @WithMockUser(roles = "PATIENT")
+    @DisplayName("Should deny the stream to roles that cannot read appointments")
+    void shouldDenyOtherRoles() throws Exception {
+        mockMvc.perform(get("/api/appointments/stream"))
+                .andExpect(status().isForbidden());
+    }
+}
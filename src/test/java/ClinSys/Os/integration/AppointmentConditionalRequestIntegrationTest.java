@@ -0,0 +1,82 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppointmentConditionalRequestIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepository repository;
+
+    private UUID seed(String doctor) {
+        return repository.save(Appointment.builder()
+                .patientName("Patient")
+                .doctorName(doctor)
+                .specialtyName("Orthopedics")
+                .dateTime(LocalDateTime.now().plusDays(50).truncatedTo(ChronoUnit.HOURS))
+                .status(AppointmentStatus.SCHEDULED)
+                .build()).getId();
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should answer 304 when the ETag still matches")
+    void shouldReturnNotModified() throws Exception {
+        UUID id = seed("Dr. Etag");
+
+        mockMvc.perform(get("/api/appointments/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").value(0));
+
+        mockMvc.perform(get("/api/appointments/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should reject updates whose If-Match is stale")
+    void shouldRejectStaleUpdate() throws Exception {
+        UUID id = seed("Dr. IfMatch");
+        String body = "{\"patientName\":\"Patient\",\"doctorName\":\"Dr. IfMatch\",\"specialty\":\"Orthopedics\","
+                + "\"dateTime\":\"" + LocalDateTime.now().plusDays(50).truncatedTo(ChronoUnit.HOURS) + "\",\"status\":\"IN_PROGRESS\"}";
+
+        mockMvc.perform(put("/api/appointments/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/api/appointments/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/appointments/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+}
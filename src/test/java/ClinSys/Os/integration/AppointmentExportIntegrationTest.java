@@ -0,0 +1,172 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.service.AppointmentExportService;
+import ClinSys.Os.service.AppointmentExportService.Format;
+import ClinSys.Os.service.AppointmentFields;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppointmentExportIntegrationTest {
+
+    private static final String DOCTOR = "Dr. Export";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepository repository;
+
+    @Autowired
+    private AppointmentExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (repository.findAll().stream().noneMatch(a -> DOCTOR.equals(a.getDoctorName()))) {
+            for (int i = 0; i < 3; i++) {
+                repository.save(Appointment.builder()
+                        .patientName("Patient " + i)
+                        .doctorName(DOCTOR)
+                        .specialtyName("Billing")
+                        .dateTime(LocalDateTime.now().plusDays(20).plusHours(i))
+                        .status(AppointmentStatus.SCHEDULED)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should stream one JSON document per line")
+    void shouldExportNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/appointments/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(3, body.lines().filter(line -> line.contains(DOCTOR)).count());
+        assertEquals(repository.count(), body.lines().count());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should gzip the stream when the client accepts it")
+    void shouldExportGzipNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/appointments/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] compressed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String body;
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(3, body.lines().filter(line -> line.contains(DOCTOR)).count());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should honour the weights of Accept-Encoding")
+    void shouldNotGzipWhenRefused() throws Exception {
+        assertNull(contentEncoding("gzip;q=0, identity"));
+        assertNull(contentEncoding("*;q=0.5, gzip; q=0"));
+        assertNull(contentEncoding("br, deflate"));
+        assertEquals("gzip", contentEncoding("br;q=1.0, *;q=0.1"));
+        assertEquals("gzip", contentEncoding("deflate, GZIP;Q=0.8"));
+    }
+
+    private String contentEncoding(String acceptEncoding) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/appointments/export").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    @Test
+    @DisplayName("Should keep the persistence context bounded while exporting many distinct patients")
+    void shouldNotAccumulateReferences() {
+        int rows = 4 * AppointmentExportService.FLUSH_INTERVAL;
+        List<Appointment> bulk = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            bulk.add(Appointment.builder()
+                    .patientName("Bulk Export Patient " + i)
+                    .doctorName("Dr. Bulk Export")
+                    .specialtyName("Billing")
+                    .dateTime(LocalDateTime.of(1985, 1, 1, 0, 0).plusHours(i))
+                    .status(AppointmentStatus.COMPLETED)
+                    .build());
+        }
+        List<Appointment> saved = repository.saveAll(bulk);
+        try {
+            // The export joins this transaction, so its persistence context can be inspected afterwards
+            Integer managed = transactionTemplate.execute(status -> {
+                try {
+                    long count = exportService.export(OutputStream.nullOutputStream(), Format.NDJSON, AppointmentFields.parse(null));
+                    assertThat(count).isGreaterThanOrEqualTo(rows);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                return entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities();
+            });
+            // At most the appointment and its three references for each row since the last clear
+            assertThat(managed).isLessThan(4 * AppointmentExportService.FLUSH_INTERVAL);
+        } finally {
+            repository.deleteAllInBatch(saved);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should restrict the export to administrators")
+    void shouldForbidExportForNonAdmins() throws Exception {
+        mockMvc.perform(get("/api/appointments/export"))
+                .andExpect(status().isForbidden());
+    }
+}
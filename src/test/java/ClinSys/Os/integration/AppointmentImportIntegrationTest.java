@@ -0,0 +1,114 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppointmentImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepository repository;
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should create valid items and report invalid and overlapping ones")
+    void shouldCreateBatch() throws Exception {
+        String doctor = "Dr. Batch";
+        LocalDateTime start = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS);
+        String body = """
+                [
+                  {"patientName": "Ana", "doctorName": "%1$s", "specialty": "Dermatology", "dateTime": "%2$s"},
+                  {"patientName": "Bruno", "doctorName": "%1$s", "specialty": "Dermatology", "dateTime": "%3$s"},
+                  {"patientName": "", "doctorName": "%1$s", "specialty": "Dermatology", "dateTime": "%4$s"},
+                  {"patientName": "Carla", "doctorName": "%1$s", "specialty": "Dermatology", "dateTime": "%4$s"}
+                ]
+                """.formatted(doctor, start, start.plusMinutes(15), start.plusHours(1));
+
+        mockMvc.perform(post("/api/appointments/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("Doctor already has an appointment at this time"))
+                .andExpect(jsonPath("$.results[2].errors").value(hasItem("patientName: Patient name is required")))
+                .andExpect(jsonPath("$.results[3].status").value("CREATED"));
+
+        assertEquals(2, repository.findAll().stream().filter(a -> doctor.equals(a.getDoctorName())).count());
+    }
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should report null items as rejected rows")
+    void shouldRejectNullItems() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(32).truncatedTo(ChronoUnit.HOURS);
+        String body = """
+                [
+                  null,
+                  {"patientName": "Ana", "doctorName": "Dr. Batch Null", "specialty": "Dermatology", "dateTime": "%s"}
+                ]
+                """.formatted(start);
+
+        mockMvc.perform(post("/api/appointments/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[0].errors[0]").value("Appointment is required"))
+                .andExpect(jsonPath("$.results[1].status").value("CREATED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should import appointments from a CSV file")
+    void shouldImportCsv() throws Exception {
+        String doctor = "Dr. Csv";
+        LocalDateTime start = LocalDateTime.now().plusDays(31).truncatedTo(ChronoUnit.HOURS);
+        String csv = "doctorName,patientName,specialty,dateTime\n"
+                + doctor + ",\"Silva, Ana\",Neurology," + start + "\n"
+                + "\n"
+                + doctor + ",Bruno,Neurology,not-a-date\n"
+                + doctor + ",Carla,Neurology," + start.plusHours(2) + "\n";
+        var file = new MockMultipartFile("file", "appointments.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/appointments/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("dateTime: Invalid date/time format"));
+
+        assertEquals(1, repository.findAll().stream().filter(a -> "Silva, Ana".equals(a.getPatientName())).count());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should reject a CSV without the required columns")
+    void shouldRejectCsvWithoutHeader() throws Exception {
+        var file = new MockMultipartFile("file", "appointments.csv", "text/csv", "name,date\nAna,2030-01-01T10:00\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/appointments/import").file(file))
+                .andExpect(status().isBadRequest());
+    }
+}
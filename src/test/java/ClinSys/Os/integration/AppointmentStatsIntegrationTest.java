@@ -0,0 +1,114 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppointmentStatsIntegrationTest {
+
+    private static final String DOCTOR = "Dr. Stats";
+
+    // A Monday far enough ahead not to collide with other tests
+    private final LocalDate monday = LocalDate.now().plusYears(2).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepository repository;
+
+    @BeforeEach
+    void seed() {
+        if (!repository.findDoctorSpecialties().stream().anyMatch(d -> d.getDoctorName().equals(DOCTOR))) {
+            save(monday.atTime(9, 0), AppointmentStatus.SCHEDULED);
+            save(monday.atTime(10, 0), AppointmentStatus.COMPLETED);
+            save(monday.atTime(11, 0), AppointmentStatus.CANCELED);
+            save(monday.plusDays(2).atTime(9, 0), AppointmentStatus.SCHEDULED);
+        }
+    }
+
+    private void save(LocalDateTime dateTime, AppointmentStatus status) {
+        repository.save(Appointment.builder()
+                .patientName("Patient")
+                .doctorName(DOCTOR)
+                .specialtyName("Oncology")
+                .dateTime(dateTime)
+                .status(status)
+                .build());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should count per status and day, including empty days, with utilization")
+    void shouldGroupByDay() throws Exception {
+        // 08:00-18:00 with 30 minute appointments: 20 bookable slots per working day
+        mockMvc.perform(get("/api/appointments/stats")
+                        .param("groupBy", "day")
+                        .param("from", monday.toString())
+                        .param("to", monday.plusDays(2).toString())
+                        .param("doctorName", DOCTOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.byStatus.SCHEDULED").value(2))
+                .andExpect(jsonPath("$.byStatus.CANCELED").value(1))
+                .andExpect(jsonPath("$.buckets", hasSize(3)))
+                .andExpect(jsonPath("$.buckets[0].key").value(monday.toString()))
+                .andExpect(jsonPath("$.buckets[0].total").value(3))
+                .andExpect(jsonPath("$.buckets[0].utilization").value(closeTo(2 / 20.0, 1e-9)))
+                .andExpect(jsonPath("$.buckets[1].total").value(0))
+                .andExpect(jsonPath("$.buckets[2].byStatus.SCHEDULED").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should fold days into weeks and group by doctor")
+    void shouldGroupByWeekAndDoctor() throws Exception {
+        mockMvc.perform(get("/api/appointments/stats")
+                        .param("groupBy", "WEEK")
+                        .param("from", monday.toString())
+                        .param("to", monday.plusDays(6).toString())
+                        .param("doctorName", DOCTOR))
+                .andExpect(jsonPath("$.buckets", hasSize(1)))
+                .andExpect(jsonPath("$.buckets[0].key").value(monday.toString()))
+                .andExpect(jsonPath("$.buckets[0].total").value(4))
+                .andExpect(jsonPath("$.buckets[0].utilization").value(closeTo(3 / 100.0, 1e-9)));
+
+        mockMvc.perform(get("/api/appointments/stats")
+                        .param("groupBy", "doctor")
+                        .param("from", monday.toString())
+                        .param("to", monday.plusDays(6).toString())
+                        .param("specialty", "Oncology"))
+                .andExpect(jsonPath("$.buckets[?(@.key == 'Dr. Stats')].total").value(4));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should reject unknown groupings and oversized ranges")
+    void shouldRejectInvalidRequests() throws Exception {
+        mockMvc.perform(get("/api/appointments/stats").param("groupBy", "patient"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/appointments/stats").param("from", "2020-01-01").param("to", "2022-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
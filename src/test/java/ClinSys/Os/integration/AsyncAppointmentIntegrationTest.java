@@ -0,0 +1,78 @@
+package ClinSys.Os.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AsyncAppointmentIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should create, read and delete appointments through the async endpoints")
+    void shouldServeAppointmentsAsynchronously() throws Exception {
+        String body = "{\"patientName\":\"Patient\",\"doctorName\":\"Dr. Async\",\"specialty\":\"Urology\","
+                + "\"dateTime\":\"" + LocalDateTime.now().plusDays(95).truncatedTo(ChronoUnit.DAYS).withHour(10) + "\"}";
+        MvcResult started = mockMvc.perform(post("/api/async/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String location = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, containsString("/api/async/appointments/")))
+                .andExpect(jsonPath("$.doctorName").value("Dr. Async"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        started = mockMvc.perform(get("/api/async/appointments/{id}", id)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.status").value("SCHEDULED"));
+
+        started = mockMvc.perform(get("/api/async/appointments").param("doctorName", "Dr. Async")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(id));
+
+        started = mockMvc.perform(delete("/api/async/appointments/{id}", id)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should map service exceptions and deny roles as the synchronous endpoints do")
+    void shouldKeepErrorsAndRoles() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/async/appointments/{id}", UUID.randomUUID()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/api/async/appointments/{id}", UUID.randomUUID()))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,121 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.OutboxEvent;
+import ClinSys.Os.domain.repository.OutboxEventRepository;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.agenda.DoctorAgendaProjection;
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DoctorAgendaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentService service;
+
+    @Autowired
+    private DoctorAgendaProjection projection;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private AppointmentResponse create(LocalDateTime dateTime) {
+        return service.create(AppointmentRequest.builder()
+                .patientName("Patient")
+                .doctorName("Dr. Agenda")
+                .specialty("Pediatrics")
+                .dateTime(dateTime)
+                .build());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return the doctor's day in time order and follow later changes")
+    void shouldServeAgendaFromProjection() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(80);
+        AppointmentResponse afternoon = create(day.atTime(14, 0));
+        AppointmentResponse morning = create(day.atTime(9, 0));
+
+        mockMvc.perform(get("/api/appointments/agenda").param("doctorName", "Dr. Agenda").param("date", day.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(morning.getId().toString()))
+                .andExpect(jsonPath("$[1].id").value(afternoon.getId().toString()));
+
+        service.update(morning.getId(), AppointmentRequest.builder()
+                .patientName("Patient")
+                .doctorName("Dr. Agenda")
+                .specialty("Pediatrics")
+                .dateTime(day.plusDays(1).atTime(9, 0))
+                .status(AppointmentStatus.SCHEDULED)
+                .build());
+        service.delete(afternoon.getId());
+
+        mockMvc.perform(get("/api/appointments/agenda").param("doctorName", "Dr. Agenda").param("date", day.toString()))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/appointments/agenda").param("doctorName", "Dr. Agenda").param("date", day.plusDays(1).toString()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].version").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should apply the changes another instance wrote to the outbox on refresh")
+    void shouldFollowOtherInstancesThroughOutbox() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(90);
+        AppointmentResponse created = create(day.atTime(10, 0));
+        // What another instance writes when it moves the appointment: this one gets no change event for it
+        AppointmentResponse moved = new AppointmentResponse(created.getId(), created.getPatientName(), created.getDoctorName(),
+                created.getSpecialty(), day.atTime(11, 0), created.getStatus(), created.getVersion() + 1);
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateType(AppointmentOutbox.AGGREGATE_TYPE)
+                .aggregateId(moved.getId())
+                .type(ChangeType.UPDATED.name())
+                .payload(objectMapper.writeValueAsString(moved))
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+
+        projection.refresh();
+
+        mockMvc.perform(get("/api/appointments/agenda").param("doctorName", "Dr. Agenda").param("date", day.toString()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].version").value(moved.getVersion()));
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should read days outside the in-memory window from the database")
+    void shouldReadOldDaysFromDatabase() throws Exception {
+        mockMvc.perform(get("/api/appointments/agenda").param("doctorName", "Dr. Agenda").param("date", LocalDate.now().minusYears(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
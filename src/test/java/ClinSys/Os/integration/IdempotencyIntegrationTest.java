@@ -0,0 +1,97 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.domain.model.IdempotencyRecord;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.IdempotencyRecordRepository;
+import ClinSys.Os.service.IdempotencyService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static ClinSys.Os.domain.repository.AppointmentSpecifications.doctorNameEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "clinsys.idempotency.persistent=true")
+@AutoConfigureMockMvc
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepository appointments;
+
+    @Autowired
+    private IdempotencyRecordRepository records;
+
+    private static MockHttpServletRequestBuilder create(String doctor, int hour, String key) {
+        String body = "{\"patientName\":\"Patient\",\"doctorName\":\"" + doctor + "\",\"specialty\":\"Nephrology\","
+                + "\"dateTime\":\"" + LocalDateTime.now().plusDays(100).truncatedTo(ChronoUnit.DAYS).withHour(hour) + "\"}";
+        return post("/api/appointments").header(IdempotencyService.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    @Test
+    @WithMockUser(username = "front-desk", roles = "RECEPTIONIST")
+    @DisplayName("Should create once and replay the original response to retries")
+    void shouldReplayRetries() throws Exception {
+        String id = mockMvc.perform(create("Dr. Idempotent", 9, "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn().getResponse().getHeader("Location");
+
+        mockMvc.perform(create("Dr. Idempotent", 9, "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", id))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.doctorName").value("Dr. Idempotent"));
+
+        assertThat(appointments.count(doctorNameEquals("Dr. Idempotent"))).isEqualTo(1);
+        assertThat(records.findAll()).extracting(IdempotencyRecord::getResponse)
+                .anyMatch(response -> response != null && response.contains("Dr. Idempotent"));
+    }
+
+    @Test
+    @WithMockUser(username = "front-desk", roles = "RECEPTIONIST")
+    @DisplayName("Should reject a key reused for a different request")
+    void shouldRejectDifferentRequest() throws Exception {
+        mockMvc.perform(create("Dr. Idempotent Reuse", 9, "reuse-1")).andExpect(status().isCreated());
+
+        mockMvc.perform(create("Dr. Idempotent Reuse", 10, "reuse-1"))
+                .andExpect(status().isBadRequest());
+        assertThat(appointments.count(doctorNameEquals("Dr. Idempotent Reuse"))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep keys of different users apart and release the key of a failed request")
+    void shouldScopeKeysAndForgetFailures() throws Exception {
+        mockMvc.perform(create("Dr. Idempotent Scope", 9, "shared").with(user("desk-a").roles("RECEPTIONIST")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(create("Dr. Idempotent Scope", 11, "shared").with(user("desk-b").roles("RECEPTIONIST")))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+
+        // Slot taken: the failure is not remembered, so the same key can be retried with a corrected request
+        mockMvc.perform(create("Dr. Idempotent Scope", 9, "fix-me").with(user("desk-a").roles("RECEPTIONIST")))
+                .andExpect(status().isConflict());
+        assertThat(records.findAll()).allMatch(record -> record.getResponse() != null);
+        mockMvc.perform(create("Dr. Idempotent Scope", 12, "fix-me").with(user("desk-a").roles("RECEPTIONIST")))
+                .andExpect(status().isCreated());
+
+        assertThat(appointments.count(doctorNameEquals("Dr. Idempotent Scope"))).isEqualTo(3);
+    }
+}
@@ -0,0 +1,41 @@
+package ClinSys.Os.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+class ManagementPortIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    @DisplayName("Should serve Prometheus anonymously only on the management port")
+    void shouldScrapeOnlyOnManagementPort() {
+        ResponseEntity<String> scrape = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody()).contains("jvm_memory_used_bytes");
+
+        ResponseEntity<String> publicScrape = restTemplate.getForEntity("http://localhost:" + serverPort + "/actuator/prometheus", String.class);
+        assertThat(publicScrape.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+
+        // The other endpoints still need an administrator on the management port
+        ResponseEntity<String> metrics = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/metrics", String.class);
+        assertThat(metrics.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+}
@@ -0,0 +1,65 @@
+package ClinSys.Os.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should expose service, JWT, pool and Hibernate metrics for Prometheus")
+    void shouldExposePrometheusMetrics() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"metricsuser\",\"password\":\"secret\",\"role\":\"DOCTOR\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(response).get("token").asText();
+        mockMvc.perform(get("/api/appointments").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Tests have no separate management port: on the API port, scraping needs an administrator
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("clinsys_service_seconds_count{application=\"Os\",class=\"ClinSys.Os.service.AuthenticationService\",exception=\"none\",method=\"register\"}"),
+                        containsString("method=\"findPage\""),
+                        containsString("clinsys_jwt_seconds_count{application=\"Os\",class=\"ClinSys.Os.security.JwtService\",exception=\"none\",method=\"parseClaims\",operation=\"verify\"}"),
+                        containsString("clinsys_jwt_filter_seconds_count{application=\"Os\",outcome=\"verified\"}"),
+                        containsString("hikaricp_connections_active"),
+                        containsString("hibernate_statements_total"))));
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should restrict the metrics endpoint to administrators")
+    void shouldRestrictMetricsEndpoint() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+}
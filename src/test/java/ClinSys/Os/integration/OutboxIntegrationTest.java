@@ -0,0 +1,135 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.OutboxEvent;
+import ClinSys.Os.domain.repository.OutboxEventRepository;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.outbox.OutboxMessage;
+import ClinSys.Os.service.outbox.OutboxRelay;
+import ClinSys.Os.service.outbox.OutboxSink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class OutboxIntegrationTest {
+
+    private static final AtomicBoolean SINK_DOWN = new AtomicBoolean();
+
+    @TestConfiguration
+    static class FlakySinkConfig {
+
+        @Bean
+        OutboxSink flakySink() {
+            return new OutboxSink() {
+                @Override
+                public String name() {
+                    return "flaky";
+                }
+
+                @Override
+                public void deliver(List<OutboxMessage> batch) {
+                    if (SINK_DOWN.get()) {
+                        throw new IllegalStateException("sink unavailable");
+                    }
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private AppointmentService service;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private AppointmentResponse create(String doctor) {
+        return service.create(AppointmentRequest.builder()
+                .patientName("Patient")
+                .doctorName(doctor)
+                .specialty("Dermatology")
+                .dateTime(LocalDateTime.now().plusDays(70).truncatedTo(ChronoUnit.HOURS))
+                .build());
+    }
+
+    private OutboxEvent eventOf(UUID appointmentId, String type) {
+        return outboxRepository.findAll().stream()
+                .filter(e -> e.getAggregateId().equals(appointmentId) && e.getType().equals(type))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should write the change to the outbox and relay it to in-process listeners")
+    void shouldRelayCommittedChanges() {
+        AppointmentResponse created = create("Dr. Outbox");
+        service.delete(created.getId());
+
+        assertThat(eventOf(created.getId(), "CREATED").getPublishedAt()).isNull();
+        assertThat(eventOf(created.getId(), "CREATED").getPayload()).contains("Dr. Outbox");
+
+        relay.relayPending();
+
+        List<OutboxMessage> relayed = events.stream(OutboxMessage.class)
+                .filter(m -> m.aggregateId().equals(created.getId()))
+                .toList();
+        assertThat(relayed).extracting(OutboxMessage::type).containsExactly("CREATED", "DELETED");
+        assertThat(eventOf(created.getId(), "DELETED").getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should keep undelivered events and retry them after a sink failure")
+    void shouldRetryAfterSinkFailure() {
+        AppointmentResponse created = create("Dr. Outbox Retry");
+
+        SINK_DOWN.set(true);
+        try {
+            relay.relayPending();
+        } finally {
+            SINK_DOWN.set(false);
+        }
+        OutboxEvent failed = eventOf(created.getId(), "CREATED");
+        assertThat(failed.getPublishedAt()).isNull();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("flaky");
+        assertThat(failed.getNextAttemptAt()).isAfter(failed.getCreatedAt());
+
+        // Not due yet: the backoff keeps it out of the next batch
+        relay.relayPending();
+        assertThat(eventOf(created.getId(), "CREATED").getPublishedAt()).isNull();
+
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(failed);
+        relay.relayPending();
+
+        assertThat(eventOf(created.getId(), "CREATED").getPublishedAt()).isNotNull();
+        assertThat(events.stream(OutboxMessage.class)
+                .filter(m -> m.aggregateId().equals(created.getId()))
+                .map(OutboxMessage::attempt))
+                .contains(2);
+    }
+}
@@ -0,0 +1,81 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.domain.model.Patient;
+import ClinSys.Os.domain.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PatientSearchIntegrationTest {
+
+    private static final List<String> PATIENTS = List.of("Zuleica Search", "Ana Zuleica", "Zuleide Search", "Bruno Zu");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientRepository patients;
+
+    @BeforeEach
+    void seed() {
+        for (String name : PATIENTS) {
+            if (!patients.existsById(Patient.idOf(name))) {
+                patients.save(Patient.named(name));
+            }
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should rank prefix matches before substring matches and page through them")
+    void shouldRankAndPage() throws Exception {
+        String cursor = mockMvc.perform(get("/api/patients/search").param("q", "zulei").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Zuleica Search"))
+                .andExpect(jsonPath("$.items[1].name").value("Zuleide Search"))
+                .andExpect(jsonPath("$.nextCursor").value(notNullValue()))
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/patients/search").param("q", "zulei").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Ana Zuleica"))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should match only name prefixes for very short queries")
+    void shouldMatchPrefixForShortQueries() throws Exception {
+        mockMvc.perform(get("/api/patients/search").param("q", "zu"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name").value(containsInAnyOrder("Zuleica Search", "Zuleide Search")));
+    }
+
+    @Test
+    @WithMockUser(roles = "RECEPTIONIST")
+    @DisplayName("Should reject blank queries and malformed cursors")
+    void shouldRejectInvalidRequests() throws Exception {
+        mockMvc.perform(get("/api/patients/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/patients/search").param("q", "zulei").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
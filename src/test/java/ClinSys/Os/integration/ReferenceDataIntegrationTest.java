@@ -0,0 +1,98 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.domain.model.Patient;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReferenceDataIntegrationTest {
+
+    @Autowired
+    private AppointmentService service;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentResponse create(String patient, String doctor, LocalDateTime dateTime) {
+        return service.create(AppointmentRequest.builder()
+                .patientName(patient)
+                .doctorName(doctor)
+                .specialty("Rheumatology")
+                .dateTime(dateTime)
+                .build());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should store one doctor and one patient for every spelling of their names")
+    void shouldDeduplicateNames() throws Exception {
+        LocalDateTime nine = LocalDateTime.now().plusDays(80).truncatedTo(ChronoUnit.DAYS).withHour(9);
+        AppointmentResponse first = create("Joana Reference", "Dr. Reference", nine);
+        AppointmentResponse second = create("  joana   reference ", "dr.  REFERENCE", nine.plusHours(1));
+
+        assertThat(second.getDoctorName()).isEqualTo("Dr. Reference");
+        assertThat(second.getPatientName()).isEqualTo("Joana Reference");
+        assertThat(entityManager.find(Doctor.class, Doctor.idOf("Dr. Reference"))).isNotNull();
+        assertThat(entityManager.find(Patient.class, Patient.idOf("JOANA REFERENCE")).getName()).isEqualTo("Joana Reference");
+
+        mockMvc.perform(get("/api/appointments").param("doctorName", "dr. reference"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(first.getId().toString()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should detect overlaps between different spellings of the same doctor")
+    void shouldDetectOverlapAcrossSpellings() {
+        LocalDateTime ten = LocalDateTime.now().plusDays(81).truncatedTo(ChronoUnit.DAYS).withHour(10);
+        create("Patient", "Dr. Overlap Reference", ten);
+
+        assertThrows(BusinessException.class, () -> create("Patient", "dr. overlap reference", ten.plusMinutes(15)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should create new names in the caller's transaction")
+    void shouldCreateReferencesInCallerTransaction() {
+        LocalDateTime eleven = LocalDateTime.now().plusDays(82).truncatedTo(ChronoUnit.DAYS).withHour(11);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            create("Rolled Back Patient", "Dr. Rolled Back", eleven);
+            status.setRollbackOnly();
+        });
+
+        assertThat(entityManager.find(Doctor.class, Doctor.idOf("Dr. Rolled Back"))).isNull();
+        assertThat(entityManager.find(Patient.class, Patient.idOf("Rolled Back Patient"))).isNull();
+        // The name is created again by the next appointment that uses it
+        assertThat(create("Rolled Back Patient", "Dr. Rolled Back", eleven.plusHours(2)).getDoctorName()).isEqualTo("Dr. Rolled Back");
+    }
+}
@@ -0,0 +1,188 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.api.dto.CursorPage;
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ResponseEncodingIntegrationTest {
+
+    private static final String DOCTOR = "Dr. Encoding";
+    private static final TypeReference<CursorPage<AppointmentResponse>> PAGE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        if (repository.findAll().stream().noneMatch(a -> DOCTOR.equals(a.getDoctorName()))) {
+            for (int i = 0; i < 3; i++) {
+                repository.save(Appointment.builder()
+                        .patientName("Patient " + i)
+                        .doctorName(DOCTOR)
+                        .specialtyName("Radiology")
+                        .dateTime(LocalDateTime.now().plusDays(40).plusHours(i).withNano(0))
+                        .status(AppointmentStatus.SCHEDULED)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should return the same page as CBOR and Smile, smaller than JSON")
+    void shouldNegotiateBinaryRepresentations() throws Exception {
+        byte[] json = list(MediaType.APPLICATION_JSON, null);
+        byte[] cbor = list(MediaType.APPLICATION_CBOR, null);
+        byte[] smile = list(MediaType.parseMediaType("application/x-jackson-smile"), null);
+
+        CursorPage<AppointmentResponse> expected = objectMapper.readValue(json, PAGE);
+        // Binary formats write UUIDs as 16 bytes instead of 36 characters
+        assertEquals(expected, new CBORMapper().findAndRegisterModules().readValue(cbor, PAGE));
+        assertEquals(expected, new SmileMapper().findAndRegisterModules().readValue(smile, PAGE));
+        assertEquals(3, expected.getItems().size());
+        assertTrue(cbor.length < json.length);
+        assertTrue(smile.length < cbor.length);
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should keep only the requested fields of each appointment")
+    void shouldReturnSparseFieldsets() throws Exception {
+        JsonNode page = objectMapper.readTree(list(MediaType.APPLICATION_JSON, "id, dateTime,status"));
+
+        assertEquals(3, page.get("items").size());
+        for (JsonNode item : page.get("items")) {
+            List<String> names = new ArrayList<>();
+            item.fieldNames().forEachRemaining(names::add);
+            assertEquals(List.of("id", "dateTime", "status"), names);
+        }
+        // Only appointments are filtered, not the page around them
+        assertTrue(page.has("nextCursor"));
+        assertEquals(3, page.get("size").asInt());
+
+        JsonNode cbor = new CBORMapper().readTree(list(MediaType.APPLICATION_CBOR, "status"));
+        assertEquals(1, cbor.get("items").get(0).size());
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    @DisplayName("Should reject unknown fields")
+    void shouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/appointments").param("doctorName", DOCTOR).param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("fields must be")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should reject invalid fields before creating the appointment")
+    void shouldRejectUnknownFieldsBeforeWriting() throws Exception {
+        long before = repository.count();
+        String body = objectMapper.writeValueAsString(AppointmentRequest.builder()
+                .patientName("Patient Fields")
+                .doctorName(DOCTOR)
+                .specialty("Radiology")
+                .dateTime(LocalDateTime.now().plusDays(41).withNano(0))
+                .build());
+
+        mockMvc.perform(post("/api/appointments").param("fields", "id,password")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("fields must be")));
+        assertEquals(before, repository.count());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should export a CBOR sequence with the requested fields")
+    void shouldExportCborSequence() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/appointments/export")
+                        .accept("application/cbor-seq")
+                        .param("fields", "doctorName,status"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor-seq"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=appointments.cbors"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<JsonNode> items = new CBORMapper().readerFor(JsonNode.class).<JsonNode>readValues(body).readAll();
+        assertEquals(repository.count(), items.size());
+        assertEquals(3, items.stream().filter(item -> DOCTOR.equals(item.get("doctorName").asText())).count());
+        assertTrue(items.stream().allMatch(item -> item.size() == 2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should export a Smile stream")
+    void shouldExportSmile() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/appointments/export").accept("application/x-jackson-smile"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<JsonNode> items = new SmileMapper().readerFor(JsonNode.class).<JsonNode>readValues(body).readAll();
+        assertEquals(repository.count(), items.size());
+    }
+
+    private byte[] list(MediaType accept, String fields) throws Exception {
+        var request = get("/api/appointments").param("doctorName", DOCTOR).accept(accept);
+        if (fields != null) {
+            request.param("fields", fields);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,170 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.PatientResponse;
+import ClinSys.Os.domain.model.Doctor;
+import ClinSys.Os.service.PatientSearchService;
+import ClinSys.Os.service.archive.AppointmentArchiver;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Upgrades a database created before migrations existed and lets Hibernate validate the result.
+ * Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        // The test properties replace the main ones, which baseline a pre-migration database at version 1
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+class SchemaMigrationIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PatientSearchService patientSearch;
+
+    @Autowired
+    private AppointmentArchiver archiver;
+
+    @BeforeAll
+    static void createLegacySchema() {
+        var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__Baseline.sql")).execute(dataSource);
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.execute("CREATE INDEX idx_appointments_doctor_date_time_id ON appointments (doctor_name, date_time, id)");
+        legacy.update("INSERT INTO appointments (id, patient_name, doctor_name, specialty, date_time, status) VALUES"
+                + " (gen_random_uuid(), 'Ana', 'Dr. House', 'Cardiology', now(), 'SCHEDULED'),"
+                + " (gen_random_uuid(), 'ana', 'dr.  house', 'cardiology', now() + interval '1 hour', 'COMPLETED'),"
+                + " (gen_random_uuid(), 'Bruno', 'Dr. Wilson', 'Oncology', now(), 'CANCELED')");
+    }
+
+    @Test
+    @DisplayName("Should move names into deduplicated reference tables and create the declared indexes")
+    void shouldUpgradeLegacySchema() {
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM doctors", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM patients", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM specialties", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments WHERE doctor_id = ?", Integer.class, Doctor.idOf("Dr. House"))).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM doctors WHERE id = ?", String.class, Doctor.idOf("dr. house")))
+                .isEqualTo("Dr. House");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns WHERE table_name = 'appointments' AND column_name = 'doctor_name'",
+                Integer.class)).isZero();
+
+        assertThat(jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class))
+                .contains("idx_appointments_doctor_id_date_time_id", "idx_appointments_active_date_time",
+                        "idx_outbox_events_pending", "idx_users_username", "idx_doctors_name", "idx_patients_name_trgm")
+                .doesNotContain("idx_appointments_doctor_date_time_id");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_outbox_events_pending'", String.class))
+                .contains("WHERE (published_at IS NULL)");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM flyway_schema_history WHERE success AND version = '3'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate usernames through the unique index")
+    void shouldKeepUsernamesUnique() {
+        String insert = "INSERT INTO users (id, username, password, role) VALUES (?, 'migration-user', 'x', 'ADMIN')";
+        jdbcTemplate.update(insert, UUID.randomUUID());
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(insert, UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Should find misspelled patient names through trigram similarity")
+    void shouldSearchPatientsWithTypos() {
+        jdbcTemplate.update("INSERT INTO patients (id, name) VALUES (gen_random_uuid(), 'Bruna Oliveira'),"
+                + " (gen_random_uuid(), 'Oliveira Bruno'), (gen_random_uuid(), 'Carla Souza')");
+
+        assertThat(patientSearch.search("olivera", null, 10).getItems())
+                .extracting(PatientResponse::getName)
+                .contains("Bruna Oliveira", "Oliveira Bruno")
+                .doesNotContain("Carla Souza");
+        assertThat(patientSearch.search("olive", null, 10).getItems())
+                .extracting(PatientResponse::getName)
+                .startsWith("Oliveira Bruno");
+        assertThat(patientSearch.search("ol", null, 10).getItems())
+                .extracting(PatientResponse::getName)
+                .containsExactly("Oliveira Bruno");
+
+        // Too few rows for the planner to prefer the indexes on its own
+        assertThat(plan("SELECT * FROM patients p WHERE 'olivera' <% p.name OR p.name ILIKE '%olive%'"))
+                .contains("idx_patients_name_trgm")
+                .doesNotContain("Seq Scan");
+        assertThat(plan("SELECT * FROM patients p WHERE lower(p.name) COLLATE \"C\" LIKE 'ol%'"
+                + " ORDER BY lower(p.name) COLLATE \"C\", p.id LIMIT 10"))
+                .contains("idx_patients_name_prefix")
+                .doesNotContain("Sort");
+    }
+
+    private String plan(String query) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (var statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (var rows = statement.executeQuery("EXPLAIN " + query)) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should partition appointments by month and drop partitions emptied by the archiver")
+    void shouldPartitionAndArchiveAppointments() {
+        String partitions = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                + " WHERE i.inhparent = 'appointments'::regclass";
+        String current = "appointments_" + YearMonth.now().format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        String ahead = "appointments_" + YearMonth.now().plusMonths(12).format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        assertThat(jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'appointments'", String.class))
+                .isEqualTo("p");
+        assertThat(jdbcTemplate.queryForList(partitions, String.class)).contains(current, ahead, "appointments_default");
+        assertThat(jdbcTemplate.queryForList("SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass", String.class, current))
+                .anyMatch(name -> name.startsWith(SchedulingEngine.OVERLAP_CONSTRAINT_PREFIX));
+
+        jdbcTemplate.queryForObject("SELECT ensure_appointment_partition(DATE '2001-05-01')", String.class);
+        jdbcTemplate.update("INSERT INTO appointments (id, patient_id, doctor_id, specialty_id, date_time, status, version)"
+                + " SELECT gen_random_uuid(), patient_id, doctor_id, specialty_id, TIMESTAMP '2001-05-02 10:00', 'COMPLETED', 0"
+                + " FROM appointments LIMIT 1");
+
+        assertThat(archiver.archiveBefore(YearMonth.of(2001, 6))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList(partitions, String.class)).doesNotContain("appointments_2001_05");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments_archive WHERE date_time = TIMESTAMP '2001-05-02 10:00'", Integer.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,84 @@
+package ClinSys.Os.integration;
+
+import ClinSys.Os.api.dto.AppointmentRequest;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import ClinSys.Os.domain.repository.UserRepository;
+import ClinSys.Os.service.AppointmentService;
+import ClinSys.Os.service.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private AppointmentService service;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should serve appointments from the cache and see updates and deletes")
+    void shouldCacheAppointments() {
+        LocalDateTime start = LocalDateTime.now().plusDays(40).truncatedTo(ChronoUnit.HOURS);
+        var request = AppointmentRequest.builder()
+                .patientName("Ana")
+                .doctorName("Dr. Cache")
+                .specialty("Pediatrics")
+                .dateTime(start)
+                .build();
+        UUID id = service.create(request).getId();
+
+        long hits = statistics.getDomainDataRegionStatistics("appointments").getHitCount();
+        service.findById(id);
+        service.findById(id);
+        assertTrue(statistics.getDomainDataRegionStatistics("appointments").getHitCount() >= hits + 2);
+
+        request.setPatientName("Ana Maria");
+        request.setStatus(AppointmentStatus.COMPLETED);
+        service.update(id, request);
+        assertEquals("Ana Maria", service.findById(id).getPatientName());
+
+        service.delete(id);
+        assertThrows(ResourceNotFoundException.class, () -> service.findById(id));
+    }
+
+    @Test
+    @DisplayName("Should serve username lookups from the query cache")
+    void shouldCacheUsernameLookups() {
+        userRepository.save(User.builder().username("cacheduser").password("x").role(Role.DOCTOR).build());
+        userRepository.findByUsername("cacheduser");
+
+        long hits = statistics.getQueryRegionStatistics("users-by-username").getHitCount();
+        userRepository.findByUsername("cacheduser");
+        assertEquals(hits + 1, statistics.getQueryRegionStatistics("users-by-username").getHitCount());
+    }
+}
@@ -0,0 +1,107 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import ClinSys.Os.service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Should hash with the strength configured for the role")
+    void shouldUseRoleStrength() {
+        encoder = new BoundedPasswordEncoder(1, 4, Duration.ofSeconds(10), 4, "ADMIN:5", registry);
+
+        String admin = encoder.encode("secret", Role.ADMIN);
+        String doctor = encoder.encode("secret", Role.DOCTOR);
+
+        assertTrue(admin.startsWith("$2a$05$"));
+        assertTrue(doctor.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret", admin));
+        assertFalse(encoder.matches("wrong", doctor));
+        assertEquals(2, registry.get("clinsys.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should flag hashes computed with another strength for rehash")
+    void shouldDetectStrengthChange() {
+        encoder = new BoundedPasswordEncoder(1, 4, Duration.ofSeconds(10), 4, "ADMIN:5", registry);
+        String hash = encoder.encode("secret");
+
+        assertFalse(encoder.needsRehash(hash, Role.RECEPTIONIST));
+        assertTrue(encoder.needsRehash(hash, Role.ADMIN));
+        assertTrue(encoder.needsRehash("plain-text", Role.RECEPTIONIST));
+    }
+
+    @Test
+    @DisplayName("Should let a user's own strength override the role's")
+    void shouldUseUserStrength() {
+        encoder = new BoundedPasswordEncoder(1, 4, Duration.ofSeconds(10), 4, "ADMIN:5", registry);
+        User admin = User.builder().username("admin").role(Role.ADMIN).build();
+        String roleHash = encoder.encode("secret", admin);
+
+        assertTrue(roleHash.startsWith("$2a$05$"));
+        assertFalse(encoder.needsRehash(roleHash, admin));
+
+        admin.setPasswordStrength(6);
+        assertTrue(encoder.needsRehash(roleHash, admin));
+        String userHash = encoder.encode("secret", admin);
+        assertTrue(userHash.startsWith("$2a$06$"));
+        assertFalse(encoder.needsRehash(userHash, admin));
+        assertTrue(encoder.matches("secret", userHash));
+    }
+
+    @Test
+    @DisplayName("Should reject hashes when the queue is full")
+    void shouldRejectWhenSaturated() throws Exception {
+        encoder = new BoundedPasswordEncoder(1, 1, Duration.ofSeconds(30), 12, "", registry);
+        int callers = 6;
+        ExecutorService callersPool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(callersPool.submit(() -> {
+                start.await();
+                try {
+                    encoder.encode("secret");
+                    return true;
+                } catch (TooManyRequestsException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int rejected = 0;
+        for (Future<Boolean> result : results) {
+            rejected += result.get() ? 0 : 1;
+        }
+        callersPool.shutdown();
+
+        assertTrue(rejected > 0);
+        assertEquals(rejected, registry.get("clinsys.password.hash.rejected").counter().count());
+    }
+}
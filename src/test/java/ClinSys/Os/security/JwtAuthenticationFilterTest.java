@@ -0,0 +1,102 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final User user = User.builder().username("doctor").password("x").role(Role.DOCTOR).build();
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private JwtTokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService("404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970", "primary", "", 60_000L);
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("doctor")).thenReturn(user);
+        tokenCache = new JwtTokenCache(100, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldLoadUserOnlyOnceForRepeatedToken() throws Exception {
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenCache, false, new SimpleMeterRegistry());
+        String token = jwtService.generateToken(Map.of("role", "DOCTOR"), user);
+
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+            assertEquals("doctor", SecurityContextHolder.getContext().getAuthentication().getName());
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(userDetailsService, times(1)).loadUserByUsername("doctor");
+    }
+
+    @Test
+    void shouldBuildPrincipalFromRoleClaimWithoutLoadingUser() throws Exception {
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenCache, true, new SimpleMeterRegistry());
+        String token = jwtService.generateToken(Map.of("role", "DOCTOR"), user);
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("doctor", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_DOCTOR")));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldIgnoreTamperedToken() throws Exception {
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenCache, false, new SimpleMeterRegistry());
+        String token = jwtService.generateToken(user) + "x";
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(tokenCache.get(token));
+    }
+
+    @Test
+    void shouldRejectCachedTokenOnceItsKeyIsRetired() throws Exception {
+        var cache = new JwtTokenCache(100, Duration.ofMinutes(5), jwtService);
+        var filter = new JwtAuthenticationFilter(jwtService, userDetailsService, cache, false, new SimpleMeterRegistry());
+        String token = jwtService.generateToken(user);
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(cache.get(token));
+        SecurityContextHolder.clearContext();
+
+        jwtService.rotateKey("next", "7A25432A462D4A614E645267556B58703273357638792F423F4528482B4D6251");
+        jwtService.retireKey("primary");
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(cache.get(token));
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
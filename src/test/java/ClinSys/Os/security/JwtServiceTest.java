@@ -0,0 +1,61 @@
+package ClinSys.Os.security;
+
+import ClinSys.Os.domain.model.Role;
+import ClinSys.Os.domain.model.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String NEW_SECRET = "6E5A7234753778214125442A472D4B6150645367566B59703373367639792442";
+
+    private final User user = User.builder().username("admin").password("x").role(Role.ADMIN).build();
+
+    @Test
+    void shouldGenerateAndValidateToken() {
+        var service = new JwtService(SECRET, "primary", "", 60_000L);
+
+        String token = service.generateToken(Map.of("role", "ADMIN"), user);
+
+        assertTrue(service.isTokenValid(token, user));
+        assertEquals("ADMIN", service.parseClaims(token).get("role", String.class));
+    }
+
+    @Test
+    void shouldKeepAcceptingPreviousKeyAfterRotation() {
+        var service = new JwtService(SECRET, "primary", "", 60_000L);
+        String oldToken = service.generateToken(user);
+
+        service.rotateKey("next", NEW_SECRET);
+        String newToken = service.generateToken(user);
+
+        assertEquals("next", service.getActiveKeyId());
+        assertEquals("admin", service.extractUsername(oldToken));
+        assertEquals("admin", service.extractUsername(newToken));
+    }
+
+    @Test
+    void shouldRejectTokensSignedWithRetiredKey() {
+        var service = new JwtService(SECRET, "primary", "", 60_000L);
+        String oldToken = service.generateToken(user);
+
+        service.rotateKey("next", NEW_SECRET);
+        service.retireKey("primary");
+
+        assertThrows(JwtException.class, () -> service.extractUsername(oldToken));
+        assertThrows(IllegalArgumentException.class, () -> service.retireKey("next"));
+    }
+
+    @Test
+    void shouldVerifyTokensFromConfiguredPreviousKeys() {
+        var issuer = new JwtService(SECRET, "old", "", 60_000L);
+        var verifier = new JwtService(NEW_SECRET, "new", "old:" + SECRET, 60_000L);
+
+        assertEquals("admin", verifier.extractUsername(issuer.generateToken(user)));
+    }
+}
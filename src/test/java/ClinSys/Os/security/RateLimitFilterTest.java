@@ -0,0 +1,142 @@
+package ClinSys.Os.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(true, "ADMIN:6,DOCTOR:3", 2, 1, 1000, Duration.ofMinutes(5),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, clock::get);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldLimitEachUserByRole() throws Exception {
+        authenticate("doctor", "ROLE_DOCTOR");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send(request("/api/appointments")).getStatus());
+        }
+        MockHttpServletResponse rejected = send(request("/api/appointments"));
+        assertEquals(429, rejected.getStatus());
+        // One request every 20 seconds at 3 per minute
+        assertEquals("20", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+
+        authenticate("admin", "ROLE_ADMIN");
+        for (int i = 0; i < 6; i++) {
+            assertEquals(200, send(request("/api/appointments")).getStatus());
+        }
+        assertEquals(429, send(request("/api/appointments")).getStatus());
+
+        assertEquals(9, meterRegistry.counter("clinsys.rate-limit.requests", "limit", "ADMIN", "outcome", "allowed").count()
+                + meterRegistry.counter("clinsys.rate-limit.requests", "limit", "DOCTOR", "outcome", "allowed").count());
+        assertEquals(1, meterRegistry.counter("clinsys.rate-limit.requests", "limit", "DOCTOR", "outcome", "rejected").count());
+    }
+
+    @Test
+    void shouldNotLetOneUserExhaustAnother() throws Exception {
+        authenticate("noisy", "ROLE_DOCTOR");
+        for (int i = 0; i < 10; i++) {
+            send(request("/api/appointments"));
+        }
+        authenticate("quiet", "ROLE_DOCTOR");
+        assertEquals(200, send(request("/api/appointments")).getStatus());
+    }
+
+    @Test
+    void shouldRefillOverTime() throws Exception {
+        authenticate("doctor", "ROLE_DOCTOR");
+        for (int i = 0; i < 3; i++) {
+            send(request("/api/appointments"));
+        }
+        assertEquals(429, send(request("/api/appointments")).getStatus());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertEquals(200, send(request("/api/appointments")).getStatus());
+        assertEquals(429, send(request("/api/appointments")).getStatus());
+
+        // An idle bucket refills up to its capacity, not beyond
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send(request("/api/appointments")).getStatus());
+        }
+        assertEquals(429, send(request("/api/appointments")).getStatus());
+    }
+
+    @Test
+    void shouldLimitAnonymousAndLoginRequestsPerAddress() throws Exception {
+        assertEquals(200, send(request("/api/auth/login", "10.0.0.1")).getStatus());
+        assertEquals(429, send(request("/api/auth/login", "10.0.0.1")).getStatus());
+        assertEquals(200, send(request("/api/auth/login", "10.0.0.2")).getStatus());
+
+        // Login attempts and other anonymous requests are counted separately
+        assertEquals(200, send(request("/v3/api-docs", "10.0.0.1")).getStatus());
+        assertEquals(200, send(request("/v3/api-docs", "10.0.0.1")).getStatus());
+        assertEquals(429, send(request("/v3/api-docs", "10.0.0.1")).getStatus());
+
+        assertEquals(1, meterRegistry.counter("clinsys.rate-limit.requests", "limit", "login", "outcome", "rejected").count());
+    }
+
+    @Test
+    void shouldNotLimitHealthChecks() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(request("/actuator/health", "10.0.0.1")).getStatus());
+        }
+    }
+
+    @Test
+    void shouldUseAnonymousLimitForRolesWithoutOwnLimit() throws Exception {
+        authenticate("receptionist", "ROLE_RECEPTIONIST");
+        assertEquals(200, send(request("/api/appointments")).getStatus());
+        assertEquals(200, send(request("/api/appointments")).getStatus());
+        assertEquals(429, send(request("/api/appointments")).getStatus());
+    }
+
+    private void authenticate(String username, String authority) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority(authority))));
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String path) {
+        return request(path, "10.0.0.1");
+    }
+
+    private MockHttpServletRequest request(String path, String address) {
+        var request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
@@ -5,15 +5,21 @@ import ClinSys.Os.domain.model.Appointment;
 import ClinSys.Os.domain.model.AppointmentStatus;
 import ClinSys.Os.domain.repository.AppointmentRepository;
 import ClinSys.Os.service.exception.BusinessException;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import ClinSys.Os.service.scheduling.SchedulingEngine;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +31,18 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentRepository repository;
 
+    @Mock
+    private SchedulingEngine scheduling;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private AppointmentOutbox outbox;
+
+    @Spy
+    private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private AppointmentService service;
 
@@ -41,12 +59,13 @@ class AppointmentServiceTest {
                 .id(UUID.randomUUID())
                 .patientName(request.getPatientName())
                 .doctorName(request.getDoctorName())
-                .specialty(request.getSpecialty())
+                .specialtyName(request.getSpecialty())
                 .dateTime(request.getDateTime())
                 .status(AppointmentStatus.SCHEDULED)
                 .build();
 
         when(repository.save(any(Appointment.class))).thenReturn(appointment);
+        when(scheduling.apply(any(), any(), any())).thenAnswer(inv -> inv.<Supplier<Appointment>>getArgument(2).get());
 
         var response = service.create(request);
 
@@ -0,0 +1,154 @@
+package ClinSys.Os.service.agenda;
+
+import ClinSys.Os.api.dto.AppointmentResponse;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.model.OutboxEvent;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.domain.repository.OutboxEventRepository;
+import ClinSys.Os.service.event.AppointmentChangedEvent.ChangeType;
+import ClinSys.Os.service.outbox.AppointmentOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorAgendaProjectionTest {
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+    private final LocalDateTime nine = tomorrow.atTime(9, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxEventRepository outboxRepository;
+    private DoctorAgendaProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxEventRepository.class);
+        projection = new DoctorAgendaProjection(mock(AppointmentRepository.class), outboxRepository, objectMapper,
+                mock(PlatformTransactionManager.class), 30, false, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldKeepEachDayOrderedByTime() {
+        var late = appointment(UUID.randomUUID(), "Dr. House", nine.plusHours(2), 0);
+        var early = appointment(UUID.randomUUID(), "Dr. House", nine, 0);
+        projection.apply(ChangeType.CREATED, late);
+        projection.apply(ChangeType.CREATED, early);
+        projection.apply(ChangeType.CREATED, appointment(UUID.randomUUID(), "Dr. Wilson", nine, 0));
+
+        assertEquals(List.of(early.getId(), late.getId()), ids(projection.agenda("Dr. House", tomorrow)));
+        assertEquals(1, projection.agenda("Dr. Wilson", tomorrow).size());
+    }
+
+    @Test
+    void shouldMoveAppointmentBetweenDaysAndDoctors() {
+        UUID id = UUID.randomUUID();
+        projection.apply(ChangeType.CREATED, appointment(id, "Dr. House", nine, 0));
+        projection.apply(ChangeType.UPDATED, appointment(id, "Dr. Wilson", nine.plusDays(1), 1));
+
+        assertTrue(projection.agenda("Dr. House", tomorrow).isEmpty());
+        assertEquals(List.of(id), ids(projection.agenda("Dr. Wilson", tomorrow.plusDays(1))));
+        assertEquals(1, projection.dayCount());
+    }
+
+    @Test
+    void shouldIgnoreChangesOlderThanTheAppliedVersion() {
+        UUID id = UUID.randomUUID();
+        projection.apply(ChangeType.UPDATED, appointment(id, "Dr. House", nine.plusHours(1), 2));
+        projection.apply(ChangeType.UPDATED, appointment(id, "Dr. House", nine, 1));
+
+        assertEquals(nine.plusHours(1), projection.agenda("Dr. House", tomorrow).get(0).getDateTime());
+    }
+
+    @Test
+    void shouldNotResurrectDeletedAppointment() {
+        UUID id = UUID.randomUUID();
+        projection.apply(ChangeType.CREATED, appointment(id, "Dr. House", nine, 0));
+        projection.apply(ChangeType.DELETED, appointment(id, "Dr. House", nine, 1));
+        // The update that produced version 1 arrives after the delete
+        projection.apply(ChangeType.UPDATED, appointment(id, "Dr. House", nine, 1));
+
+        assertTrue(projection.agenda("Dr. House", tomorrow).isEmpty());
+    }
+
+    @Test
+    void shouldSkipDaysBeforeTheWindow() {
+        LocalDate old = LocalDate.now().minusDays(31);
+        projection.apply(ChangeType.CREATED, appointment(UUID.randomUUID(), "Dr. House", old.atTime(9, 0), 0));
+
+        assertFalse(projection.covers(old));
+        assertEquals(0, projection.dayCount());
+    }
+
+    @Test
+    void shouldPickUpChangesMadeByOtherInstancesOnRefresh() throws Exception {
+        UUID kept = UUID.randomUUID();
+        UUID deletedElsewhere = UUID.randomUUID();
+        UUID updatedElsewhere = UUID.randomUUID();
+        UUID createdElsewhere = UUID.randomUUID();
+        projection.apply(ChangeType.CREATED, appointment(kept, "Dr. House", nine, 0));
+        projection.apply(ChangeType.CREATED, appointment(deletedElsewhere, "Dr. House", nine.plusHours(1), 0));
+        projection.apply(ChangeType.CREATED, appointment(updatedElsewhere, "Dr. House", nine.plusHours(2), 0));
+        when(outboxRepository.findAfter(eq(AppointmentOutbox.AGGREGATE_TYPE), any(), anyLong(), any())).thenReturn(List.of(
+                // Already applied here: read again because of the overlap
+                event(1, ChangeType.CREATED, appointment(kept, "Dr. House", nine, 0)),
+                event(2, ChangeType.DELETED, appointment(deletedElsewhere, "Dr. House", nine.plusHours(1), 0)),
+                event(3, ChangeType.UPDATED, appointment(updatedElsewhere, "Dr. House", nine.plusHours(3), 1)),
+                event(4, ChangeType.CREATED, appointment(createdElsewhere, "Dr. House", nine.plusHours(4), 0))));
+
+        LocalDateTime before = LocalDateTime.now();
+        projection.refresh();
+
+        assertEquals(List.of(kept, updatedElsewhere, createdElsewhere), ids(projection.agenda("Dr. House", tomorrow)));
+        // A late event for the appointment deleted elsewhere does not bring it back
+        projection.apply(ChangeType.UPDATED, appointment(deletedElsewhere, "Dr. House", nine.plusHours(1), 0));
+        assertEquals(3, projection.agenda("Dr. House", tomorrow).size());
+
+        // The next pass starts one overlap before this one
+        projection.refresh();
+        verify(outboxRepository).findAfter(eq(AppointmentOutbox.AGGREGATE_TYPE),
+                argThat(at -> !at.isBefore(before.minusMinutes(1))), eq(Long.MIN_VALUE), any());
+    }
+
+    private OutboxEvent event(long id, ChangeType type, AppointmentResponse appointment) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(AppointmentOutbox.AGGREGATE_TYPE)
+                .aggregateId(appointment.getId())
+                .type(type.name())
+                .payload(objectMapper.writeValueAsString(appointment))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static AppointmentResponse appointment(UUID id, String doctor, LocalDateTime dateTime, long version) {
+        return AppointmentResponse.builder()
+                .id(id)
+                .patientName("Patient")
+                .doctorName(doctor)
+                .specialty("Cardiology")
+                .dateTime(dateTime)
+                .status(AppointmentStatus.SCHEDULED)
+                .version(version)
+                .build();
+    }
+
+    private static List<UUID> ids(List<AppointmentResponse> agenda) {
+        return agenda.stream().map(AppointmentResponse::getId).toList();
+    }
+}
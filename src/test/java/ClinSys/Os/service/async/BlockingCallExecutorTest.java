@@ -0,0 +1,74 @@
+package ClinSys.Os.service.async;
+
+import ClinSys.Os.service.exception.ResourceNotFoundException;
+import ClinSys.Os.service.exception.ServiceTimeoutException;
+import ClinSys.Os.service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BlockingCallExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingCallExecutor executor = new BlockingCallExecutor(1, 1, Duration.ofMillis(200), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should complete with the result or the exception of the call")
+    void shouldCompleteWithResult() throws Exception {
+        assertThat(executor.submit(() -> "done").get(1, TimeUnit.SECONDS)).isEqualTo("done");
+
+        CompletableFuture<Object> failed = executor.submit(() -> {
+            throw new ResourceNotFoundException("missing");
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+        assertThat(e.getCause()).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject calls beyond the queue or still queued at the timeout, and time out running calls")
+    void shouldRejectOverflowAndTimeOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        CompletableFuture<Boolean> running = executor.submit(() -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        CompletableFuture<Boolean> queued = executor.submit(() -> queuedRan.getAndSet(true));
+
+        assertThrows(TooManyRequestsException.class, () -> executor.submit(() -> "overflow"));
+
+        // Never started: safe to retry
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertThat(e.getCause()).isInstanceOf(TooManyRequestsException.class);
+        // Started: it may still complete, so it is not reported as a rejection
+        e = assertThrows(ExecutionException.class, () -> running.get(1, TimeUnit.SECONDS));
+        assertThat(e.getCause()).isInstanceOf(ServiceTimeoutException.class);
+        // The expired call left the queue at once, so there is room before the worker is free again
+        CompletableFuture<String> after = executor.submit(() -> "after");
+        release.countDown();
+        assertThat(after.get(1, TimeUnit.SECONDS)).isEqualTo("after");
+        assertThat(queuedRan).isFalse();
+        assertThat(meterRegistry.get("clinsys.async.rejected").tag("reason", "queue-full").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("clinsys.async.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("clinsys.async.timed-out").counter().count()).isEqualTo(1);
+    }
+}
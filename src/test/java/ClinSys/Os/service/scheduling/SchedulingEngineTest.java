@@ -0,0 +1,123 @@
+package ClinSys.Os.service.scheduling;
+
+import ClinSys.Os.domain.model.Appointment;
+import ClinSys.Os.domain.model.AppointmentStatus;
+import ClinSys.Os.domain.repository.AppointmentRepository;
+import ClinSys.Os.service.exception.BusinessException;
+import ClinSys.Os.service.scheduling.SchedulingEngine.Slot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SchedulingEngineTest {
+
+    private final LocalDateTime nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    private SchedulingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SchedulingEngine(mock(AppointmentRepository.class), mock(PlatformTransactionManager.class), Duration.ofMinutes(30), Duration.ofMinutes(15), 8);
+    }
+
+    @Test
+    void shouldRejectOverlappingSlotForSameDoctor() {
+        book("Dr. House", nine);
+
+        assertThrows(BusinessException.class, () -> book("Dr. House", nine.plusMinutes(15)));
+        assertThrows(BusinessException.class, () -> book("Dr. House", nine.minusMinutes(15)));
+        assertDoesNotThrow(() -> book("Dr. House", nine.plusMinutes(30)));
+        assertDoesNotThrow(() -> book("Dr. Wilson", nine));
+    }
+
+    @Test
+    void shouldReleaseSlotWhenAppointmentIsCanceled() {
+        Appointment booked = book("Dr. House", nine);
+        Slot previous = Slot.of(booked);
+        booked.setStatus(AppointmentStatus.CANCELED);
+
+        engine.apply(previous, Slot.of(booked), () -> booked);
+
+        assertTrue(engine.isAvailable("Dr. House", nine));
+    }
+
+    @Test
+    void shouldKeepOriginalSlotWhenMoveConflicts() {
+        Appointment first = book("Dr. House", nine);
+        book("Dr. House", nine.plusHours(1));
+        Slot previous = Slot.of(first);
+        first.setDateTime(nine.plusHours(1));
+
+        assertThrows(BusinessException.class, () -> engine.apply(previous, Slot.of(first), () -> first));
+        assertFalse(engine.isAvailable("Dr. House", nine));
+    }
+
+    @Test
+    void shouldLeaveIndexUntouchedWhenWriteFails() {
+        var appointment = appointment("Dr. House", nine);
+
+        assertThrows(IllegalStateException.class, () -> engine.apply(null, Slot.of(appointment), () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(engine.isAvailable("Dr. House", nine));
+    }
+
+    @Test
+    void shouldFindFreeSlotsAroundBookings() {
+        book("Dr. House", nine);
+        book("Dr. House", nine.plusMinutes(70)); // 10:10-10:40, not aligned to the granularity
+
+        List<LocalDateTime> free = engine.freeSlots("Dr. House", nine.toLocalDate(), LocalTime.of(9, 0), LocalTime.of(12, 0), Duration.ofMinutes(30));
+
+        // 09:30-10:00 fits before the second booking; 10:45 is the first slot after it; 11:45 would end after closing
+        assertEquals(List.of(nine.plusMinutes(30), nine.plusMinutes(105), nine.plusMinutes(135)), free);
+    }
+
+    @Test
+    void shouldFreeSharedBoundaryOnlyWhenNeighbourIsGone() {
+        Appointment first = book("Dr. House", nine.plusMinutes(10));  // 09:10-09:40
+        book("Dr. House", nine.plusMinutes(40));                      // 09:40-10:10 shares the 09:30 bit
+        engine.apply(Slot.of(first), null, () -> first);
+
+        List<LocalDateTime> free = engine.freeSlots("Dr. House", nine.toLocalDate(), LocalTime.of(9, 0), LocalTime.of(10, 30), Duration.ofMinutes(30));
+
+        assertEquals(List.of(nine), free);
+    }
+
+    @Test
+    void shouldListDoctorsBySpecialty() {
+        book("Dr. House", nine);
+        book("Dr. Wilson", nine);
+
+        assertEquals(Set.of("Dr. House", "Dr. Wilson"), engine.doctorsWithSpecialty("General"));
+        assertTrue(engine.doctorsWithSpecialty("Oncology").isEmpty());
+    }
+
+    private Appointment book(String doctor, LocalDateTime start) {
+        var appointment = appointment(doctor, start);
+        return engine.apply(null, Slot.of(appointment), () -> {
+            appointment.setId(UUID.randomUUID());
+            return appointment;
+        });
+    }
+
+    private Appointment appointment(String doctor, LocalDateTime start) {
+        return Appointment.builder()
+                .patientName("Patient")
+                .doctorName(doctor)
+                .specialtyName("General")
+                .dateTime(start)
+                .status(AppointmentStatus.SCHEDULED)
+                .build();
+    }
+}